@@ -0,0 +1,101 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Many bookers booking one hot item at the same time. Every booking of the item goes through the
+ * overlap check, so this shows how far the check serializes writers: disjointSlots only ever succeeds,
+ * sameSlot is almost always refused with a conflict after the first booking.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class BookingContentionBenchmark {
+    private static final int BOOKERS = 64;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private Integer itemId;
+    private Integer firstBookerId;
+    private LocalDateTime firstSlot;
+    private final AtomicLong nextSlot = new AtomicLong();
+    private final AtomicInteger nextBooker = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Booker {
+        Integer id;
+
+        @Setup(Level.Trial)
+        public void pick(BookingContentionBenchmark benchmark) {
+            id = benchmark.firstBookerId + benchmark.nextBooker.getAndIncrement() % BOOKERS;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededServer.startServer("contention");
+        UserService userService = context.getBean(UserService.class);
+        UserDto owner = userService.createUser(new UserDto(null, "Owner", "owner@contention.local"));
+        firstBookerId = userService.createUser(new UserDto(null, "Booker 0", "booker0@contention.local")).getId();
+        for (int i = 1; i < BOOKERS; i++) {
+            userService.createUser(new UserDto(null, "Booker " + i, "booker" + i + "@contention.local"));
+        }
+        itemId = context.getBean(ItemService.class)
+                .addItem(new ItemDto(null, "Projector", "The only one in town", true, null), owner.getId()).getId();
+        bookingService = context.getBean(BookingService.class);
+        firstSlot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingDto disjointSlots(Booker booker) {
+        LocalDateTime start = firstSlot.plusHours(nextSlot.getAndIncrement());
+        return bookingService.createBooking(new BookingDto(null, start, start.plusHours(1), itemId,
+                null, null, null), booker.id);
+    }
+
+    @Benchmark
+    public BookingDto sameSlot(Booker booker) {
+        LocalDateTime start = firstSlot.minusHours(1);
+        try {
+            return bookingService.createBooking(new BookingDto(null, start, firstSlot, itemId,
+                    null, null, null), booker.id);
+        } catch (ConflictException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * What the gateway does with a booking list body, through the message converters it uses: the Jackson
+ * converter reading the server response into an Object tree and writing it to the client (before the
+ * pass-through change) versus the byte array converter reading and writing the raw bytes.
+ * Compare gc.alloc.rate.norm of the two methods for the per-request allocation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GatewayBodyBenchmark {
+
+    @Param({"20", "1000"})
+    public int bookings;
+
+    private final MappingJackson2HttpMessageConverter jackson = new MappingJackson2HttpMessageConverter();
+    private final ByteArrayHttpMessageConverter byteArray = new ByteArrayHttpMessageConverter();
+    private byte[] body;
+
+    @Setup
+    public void init() throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDto> list = IntStream.range(0, bookings)
+                .mapToObj(i -> new BookingDto(i, now.plusDays(i), now.plusDays(i + 1), BookingStatus.APPROVED,
+                        i, "Drill " + i, "A well kept drill for rent", true, null,
+                        i, "Booker " + i, "booker" + i + "@benchmarks.local"))
+                .toList();
+        body = jackson.getObjectMapper().writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public byte[] objectTree() throws IOException {
+        Object tree = jackson.read(Object.class, new ServerResponse(body));
+        ClientResponse response = new ClientResponse(body.length);
+        jackson.write(tree, MediaType.APPLICATION_JSON, response);
+        return response.body.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] passThrough() throws IOException {
+        byte[] bytes = byteArray.read(byte[].class, new ServerResponse(body));
+        ClientResponse response = new ClientResponse(body.length);
+        byteArray.write(bytes, MediaType.APPLICATION_JSON, response);
+        return response.body.toByteArray();
+    }
+
+    // The server response body as the RestTemplate hands it to a converter.
+    private record ServerResponse(byte[] body) implements HttpInputMessage {
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.length);
+            return headers;
+        }
+    }
+
+    // The gateway response to its client, collected in memory instead of going to the socket.
+    private static final class ClientResponse implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body;
+
+        ClientResponse(int expectedSize) {
+            body = new ByteArrayOutputStream(expectedSize);
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against a running gateway: every connection sends its next request as soon as
+ * the previous one is answered, and the run reports throughput, errors and latency percentiles.
+ * With --stub-port it instead serves a stand-in for the server that answers every request after a fixed
+ * delay, so that the gateway's own threading is what limits it. To compare the blocking and reactive
+ * client modes with 10k open connections, start the stand-in, then the gateway in one mode, then the load,
+ * and repeat with the other mode. The three processes should not share CPUs, or they measure each other:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmarks.GatewayLoad \
+ *     --stub-port=9090 --stub-delay=PT0.05S
+ * java -jar gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar --shareit-server.url=http://localhost:9090 \
+ *     --shareit-gateway.client.mode=reactive
+ * java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmarks.GatewayLoad \
+ *     --target=http://localhost:8080/users/1 --connections=10000 --duration=PT30S
+ * </pre>
+ */
+public class GatewayLoad {
+    private static final String STUB_BODY = "{\"id\":1,\"name\":\"Load\",\"email\":\"load@benchmarks.local\"}";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        if (options.containsKey("stub-port")) {
+            startStub(Integer.parseInt(options.get("stub-port")),
+                    Duration.parse(options.getOrDefault("stub-delay", "PT0.05S")));
+            return;
+        }
+        URI target = URI.create(options.getOrDefault("target", "http://localhost:8080/users/1"));
+        int connections = Integer.parseInt(options.getOrDefault("connections", "10000"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT30S"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT10S"));
+
+        System.out.printf("Warming up %d connections for %s%n", connections, warmup);
+        run(target, connections, warmup);
+        System.out.printf("Measuring %d connections for %s%n", connections, duration);
+        print(run(target, connections, duration), duration);
+    }
+
+    static Result run(URI target, int connections, Duration duration) throws InterruptedException {
+        return run(target, 1, connections, duration);
+    }
+
+    static Result run(URI target, int userId, int connections, Duration duration) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(target)
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>(connections);
+        try (ExecutorService connectionThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                LatencyLog log = new LatencyLog();
+                connectionThreads.submit(() -> {
+                    while (System.nanoTime() - deadline < 0) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                        log.add(System.nanoTime() - start);
+                    }
+                    synchronized (latencies) {
+                        latencies.add(log.toArray());
+                    }
+                    return null;
+                });
+            }
+        }
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.get());
+    }
+
+    static void print(Result result, Duration duration) {
+        long[] latencies = result.latencies();
+        System.out.printf("requests=%d errors=%d throughput=%.1f/s%n", latencies.length, result.errors(),
+                latencies.length / (duration.toMillis() / 1000.0));
+        if (latencies.length > 0) {
+            System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                    percentile(latencies, 0.999), latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+
+    // Answers every request with the same user after the delay, on a virtual thread per exchange,
+    // until the process is stopped.
+    private static void startStub(int port, Duration delay) throws IOException {
+        byte[] body = STUB_BODY.getBytes(StandardCharsets.UTF_8);
+        // Headers and body go out as separate writes; with Nagle's algorithm every response waits for a delayed ACK.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 16384);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        System.out.printf("Server stand-in on port %d, answering after %s%n", port, delay);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    record Result(long[] latencies, long errors) {
+    }
+
+    // Latencies of one connection in a growable primitive array.
+    private static final class LatencyLog {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.benchmarks;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Last booking of every item in a batch on 10k items with 100 bookings each: the ROW_NUMBER() query of
+ * BookingRepository against the correlated MAX subquery it replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LastBookingQueryBenchmark {
+    private static final int ITEMS = 10_000;
+    private static final int BOOKINGS_PER_ITEM = 100;
+    private static final String CORRELATED_SUBQUERY = """
+            SELECT b FROM Booking b
+            WHERE b.item.id IN :itemIds
+              AND b.status = 'APPROVED'
+              AND b.start < :now
+              AND b.start = (
+                  SELECT MAX(b2.start) FROM Booking b2
+                  WHERE b2.item.id = b.item.id
+                    AND b2.status = 'APPROVED'
+                    AND b2.start < :now
+              )
+            """;
+
+    @Param({"20", "1000"})
+    public int itemsPerCall;
+
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private EntityManager entityManager;
+    private List<Integer> itemIds;
+    private LocalDateTime now;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededServer.startServer("lastbookings");
+        now = LocalDateTime.now();
+        // Generated by the database: a million bookings through JPA would dominate the run.
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'Owner', 'owner@benchmarks.local')");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) " +
+                "SELECT x, 'Item ' || x, 'For rent', TRUE, 1 FROM SYSTEM_RANGE(1, ?) r(x)", ITEMS);
+        // One booking a day per item, half of them in the past; every fifth one is still waiting.
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status, owner_id) " +
+                "SELECT DATEADD(DAY, MOD(x, " + BOOKINGS_PER_ITEM + ") - " + BOOKINGS_PER_ITEM / 2 + ", now), " +
+                "DATEADD(DAY, MOD(x, " + BOOKINGS_PER_ITEM + ") - " + BOOKINGS_PER_ITEM / 2 + " + 1, now), " +
+                "x / " + BOOKINGS_PER_ITEM + " + 1, 1, CASE WHEN MOD(x, 5) = 0 THEN 'WAITING' ELSE 'APPROVED' END, 1 " +
+                "FROM SYSTEM_RANGE(0, " + (ITEMS * BOOKINGS_PER_ITEM - 1) + ") r(x), " +
+                "(SELECT CAST(? AS TIMESTAMP) AS now) t", Timestamp.valueOf(now));
+        jdbcTemplate.execute("ANALYZE");
+        bookingRepository = context.getBean(BookingRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        itemIds = IntStream.rangeClosed(1, itemsPerCall).map(i -> i * (ITEMS / itemsPerCall)).boxed().toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Booking> windowFunction() {
+        return bookingRepository.findLastBookingsForItems(itemIds, now);
+    }
+
+    @Benchmark
+    public List<Booking> correlatedSubquery() {
+        return entityManager.createQuery(CORRELATED_SUBQUERY, Booking.class)
+                .setParameter("itemIds", itemIds)
+                .setParameter("now", now)
+                .getResultList();
+    }
+}
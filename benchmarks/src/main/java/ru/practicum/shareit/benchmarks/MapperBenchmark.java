@@ -0,0 +1,61 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+    private Booking booking;
+    private ItemRequest request;
+    private List<Item> requestItems;
+
+    @Setup
+    public void init() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = new User(1, "Owner", "owner@benchmarks.local");
+        User booker = new User(2, "Booker", "booker@benchmarks.local");
+        request = new ItemRequest(1, "Need a drill", booker, now);
+        Item item = new Item(1, "Drill", "A well kept drill for rent", owner.getId(), true, request);
+        booking = new Booking(1, now, now.plusDays(1), item, booker, BookingStatus.APPROVED);
+        requestItems = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> new Item(i, "Drill " + i, "A well kept drill for rent", owner.getId(), true, request))
+                .toList();
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return BookingMapper.toDto(booking);
+    }
+
+    @Benchmark
+    public ItemRequestResponseDto itemRequestToResponseDto() {
+        return ItemRequestMapper.toResponseDto(request, requestItems);
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemBookingSnapshots;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The server application without the web layer, on an in-memory H2 database in PostgreSQL mode,
+ * seeded with one owner whose items have at least 2000 bookings in every state: per item, 20 past and
+ * 20 future approved ones, 20 waiting ones after those, 20 rejected ones in the past, and 20 current ones
+ * of which one is approved and the rest rejected.
+ */
+@State(Scope.Benchmark)
+public class SeededServer {
+    static final int BOOKERS = 200;
+    static final int ITEMS = 100;
+    static final int BOOKINGS_PER_STATE = 20;
+    static final String[] ITEM_NAMES = {"Drill", "Ladder", "Tent", "Kayak", "Projector"};
+
+    ConfigurableApplicationContext context;
+    Integer ownerId;
+    Integer bookerId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = startServer("benchmarks");
+        seed();
+    }
+
+    // The server application without the web layer on its own in-memory H2 database.
+    static ConfigurableApplicationContext startServer(String database) {
+        return startServer(database, WebApplicationType.NONE);
+    }
+
+    // The server application on its own in-memory H2 database, with extra command line arguments.
+    static ConfigurableApplicationContext startServer(String database, WebApplicationType web, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .web(web)
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    void seed() {
+        UserRepository userRepository = bean(UserRepository.class);
+        ItemRequestRepository requestRepository = bean(ItemRequestRepository.class);
+        ItemRepository itemRepository = bean(ItemRepository.class);
+        BookingRepository bookingRepository = bean(BookingRepository.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        User owner = userRepository.save(new User(null, "Owner", "owner@benchmarks.local"));
+        List<User> bookers = userRepository.saveAll(IntStream.range(0, BOOKERS)
+                .mapToObj(i -> new User(null, "Booker " + i, "booker" + i + "@benchmarks.local"))
+                .toList());
+        List<ItemRequest> requests = requestRepository.saveAll(IntStream.range(0, BOOKERS)
+                .mapToObj(i -> new ItemRequest(null, "Need a " + ITEM_NAMES[i % ITEM_NAMES.length],
+                        bookers.get(i), now.minusMinutes(i)))
+                .toList());
+        List<Item> items = itemRepository.saveAll(IntStream.range(0, ITEMS)
+                .mapToObj(i -> new Item(null, ITEM_NAMES[i % ITEM_NAMES.length] + " " + i,
+                        "A well kept " + ITEM_NAMES[i % ITEM_NAMES.length].toLowerCase() + " for rent",
+                        owner.getId(), true, requests.get(i)))
+                .toList());
+
+        // Day-long approved bookings every two days before and after now, rejected ones in the days between
+        // the past ones, and waiting ones after all the approved ones, so that only rejected bookings overlap.
+        List<Booking> bookings = new ArrayList<>(ITEMS * BOOKINGS_PER_STATE * 5);
+        for (Item item : items) {
+            for (int j = 0; j < BOOKINGS_PER_STATE; j++) {
+                User booker = bookers.get((item.getId() + j) % BOOKERS);
+                LocalDateTime past = now.minusDays(2L * (j + 1)).minusHours(12);
+                LocalDateTime future = now.plusDays(2L * (j + 1)).minusHours(12);
+                LocalDateTime waiting = future.plusDays(2L * BOOKINGS_PER_STATE);
+                LocalDateTime rejected = past.plusDays(1);
+                bookings.add(new Booking(null, past, past.plusDays(1), item, booker, BookingStatus.APPROVED));
+                bookings.add(new Booking(null, future, future.plusDays(1), item, booker, BookingStatus.APPROVED));
+                bookings.add(new Booking(null, waiting, waiting.plusDays(1), item, booker, BookingStatus.WAITING));
+                bookings.add(new Booking(null, rejected, rejected.plusDays(1), item, booker, BookingStatus.REJECTED));
+                bookings.add(new Booking(null, now.minusHours(j + 1), now.plusHours(j + 1), item, booker,
+                        j == 0 ? BookingStatus.APPROVED : BookingStatus.REJECTED));
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        // Bookings are saved directly rather than approved, so the item snapshots are computed here.
+        bean(ItemBookingSnapshots.class).refresh(items, now);
+        itemRepository.saveAll(items);
+
+        ownerId = owner.getId();
+        bookerId = bookers.get(0).getId();
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput and latency of the seeded server on platform threads (the default Tomcat pool of 200)
+ * against the virtual-threads profile, under the same closed-loop load as {@link GatewayLoad}.
+ * Each mode starts its own server on a fresh database with the same pool of 20 JDBC connections,
+ * so the thread model is the only difference. The load runs in the same process, so the numbers
+ * are for comparing the modes with each other, not absolute capacity:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmarks.ServerThreadsLoad \
+ *     --modes=platform,virtual --connections=1000 --duration=PT30S --path=/bookings/owner?state=ALL
+ * </pre>
+ */
+public class ServerThreadsLoad {
+    private static final int PORT = 9090;
+    private static final int POOL_SIZE = 20;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        List<String> modes = List.of(options.getOrDefault("modes", "platform,virtual").split(","));
+        String path = options.getOrDefault("path", "/bookings/owner?state=ALL");
+        int connections = Integer.parseInt(options.getOrDefault("connections", "1000"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT30S"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT10S"));
+
+        for (String mode : modes) {
+            if (!mode.equals("platform") && !mode.equals("virtual")) {
+                throw new IllegalArgumentException("Unknown mode " + mode + ", expected platform or virtual");
+            }
+            SeededServer server = new SeededServer();
+            server.context = SeededServer.startServer("threads-" + mode, WebApplicationType.SERVLET,
+                    "--server.port=" + PORT,
+                    "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                    "--spring.profiles.include=" + (mode.equals("virtual") ? "virtual-threads" : ""));
+            try {
+                server.seed();
+                URI target = URI.create("http://localhost:" + PORT + path);
+                System.out.printf("%s threads: warming up %d connections for %s%n", mode, connections, warmup);
+                GatewayLoad.run(target, server.ownerId, connections, warmup);
+                System.out.printf("%s threads: measuring %d connections for %s%n", mode, connections, duration);
+                GatewayLoad.print(GatewayLoad.run(target, server.ownerId, connections, duration), duration);
+            } finally {
+                server.stop();
+            }
+        }
+    }
+}
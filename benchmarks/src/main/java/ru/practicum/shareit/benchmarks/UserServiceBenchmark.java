@@ -0,0 +1,63 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of creating a user as the users table grows. The email check reads the email_lower column that
+ * users_email_lower_uq is built on (QueryPlanTest checks it is not a scan), so the per-call time should stay
+ * flat from 1k to 1M existing users.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserServiceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private int created;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededServer.startServer("users" + users);
+        // Generated by the database: a million inserts through JPA would dominate the run.
+        context.getBean(JdbcTemplate.class).update("INSERT INTO users (name, email) " +
+                "SELECT 'User ' || x, 'user' || x || '@benchmarks.local' FROM SYSTEM_RANGE(1, ?) r(x)", users);
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDto createUser() {
+        created++;
+        return userService.createUser(new UserDto(null, "New user " + created,
+                "new" + created + "@benchmarks.local"));
+    }
+}
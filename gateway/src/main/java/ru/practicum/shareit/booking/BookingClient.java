@@ -1,15 +1,23 @@
 package ru.practicum.shareit.booking;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
@@ -20,44 +28,68 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory shareitServerRequestFactory,
+                         ObjectProvider<WebClient> webClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> shareitServerRequestFactory)
+                        .build(),
+                webClient.getIfAvailable(),
+                null
         );
     }
 
-    public ResponseEntity<Object> create(Integer userId, BookingDto bookingDto) {
+    public Mono<ResponseEntity<Object>> create(Integer userId, BookingDto bookingDto) {
         if (!bookingDto.getStart().isBefore(bookingDto.getEnd())) {
             throw new ValidationException("Start date should be before end date");
         }
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> approve(Integer userId, Integer bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> approve(Integer userId, Integer bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> get(Integer userId, Integer bookingId) {
+    public Mono<ResponseEntity<Object>> decide(Integer userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
+    public Mono<ResponseEntity<Object>> get(Integer userId, Integer bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getUserBookings(Integer userId, BookingState state) {
+    public Mono<ResponseEntity<Object>> getUserBookings(Integer userId, BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name()
+        );
+        return getPage("?state={state}", userId, parameters, cursor, size);
+    }
+
+
+    public Mono<ResponseEntity<Object>> getOwnerBookings(Integer userId, BookingState state, String cursor, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name()
         );
-        return get("?state={state}", userId, parameters);
+        return getPage("/owner?state={state}", userId, parameters, cursor, size);
     }
 
+    public Mono<ResponseEntity<Object>> getUserBookingSummary(Integer userId) {
+        return get("/summary", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getOwnerBookingSummary(Integer userId) {
+        return get("/owner/summary", userId);
+    }
 
-    public ResponseEntity<Object> getOwnerBookings(Integer userId, BookingState state) {
+    public void streamOwnerBookings(Integer userId, BookingState state, HttpServletResponse response)
+            throws IOException {
         Map<String, Object> parameters = Map.of(
                 "state", state.name()
         );
-        return get("/owner?state={state}", userId, parameters);
+        stream("/owner?state={state}", userId, parameters, response);
     }
 
 }
\ No newline at end of file
@@ -1,15 +1,24 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.io.IOException;
+import java.util.List;
+
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -17,46 +26,83 @@ import ru.practicum.shareit.booking.dto.BookingState;
 @Slf4j
 @Validated
 public class BookingController {
+    // The same limit as the server's, so that an oversized batch is rejected before it is forwarded.
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") Integer userId,
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                            @RequestBody @Valid BookingDto bookingDto) {
         log.info("Creating booking {}, userId={}", bookingDto, userId);
         return bookingClient.create(userId, bookingDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approve(@RequestHeader("X-Sharer-User-Id") Integer userId,
+    public Mono<ResponseEntity<Object>> approve(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                                  @PathVariable Integer bookingId,
                                                  @RequestParam boolean approved) {
         log.info("Approve booking {}, approved={}, userId={}", bookingId, approved, userId);
         return bookingClient.approve(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> decide(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                               @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                               List<@Valid BookingDecisionDto> decisions) {
+        log.info("Decide on {} bookings, userId={}", decisions.size(), userId);
+        return bookingClient.decide(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> get(@RequestHeader("X-Sharer-User-Id") Integer userId,
+    public Mono<ResponseEntity<Object>> get(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                              @PathVariable Integer bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.get(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserBookings(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+    public Mono<ResponseEntity<Object>> getUserBookings(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") Integer size) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}", stateParam, userId);
-        return bookingClient.getUserBookings(userId, state);
+        log.info("Get booking with state {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+        return bookingClient.getUserBookings(userId, state, cursor, size);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                                   @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+    public Mono<ResponseEntity<Object>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                   @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "20") Integer size) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Get owner bookings with state {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+        return bookingClient.getOwnerBookings(userId, state, cursor, size);
+    }
+
+    @GetMapping("/summary")
+    public Mono<ResponseEntity<Object>> getUserBookingSummary(@RequestHeader("X-Sharer-User-Id") Integer userId) {
+        log.info("Get booking summary, userId={}", userId);
+        return bookingClient.getUserBookingSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public Mono<ResponseEntity<Object>> getOwnerBookingSummary(@RequestHeader("X-Sharer-User-Id") Integer userId) {
+        log.info("Get owner booking summary, userId={}", userId);
+        return bookingClient.getOwnerBookingSummary(userId);
+    }
+
+    @GetMapping(value = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamOwnerBookings(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                    HttpServletResponse response) throws IOException {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get owner bookings with state {}, userId={}", stateParam, userId);
-        return bookingClient.getOwnerBookings(userId, state);
+        log.info("Stream owner bookings with state {}, userId={}", stateParam, userId);
+        bookingClient.streamOwnerBookings(userId, state, response);
     }
 
 }
\ No newline at end of file
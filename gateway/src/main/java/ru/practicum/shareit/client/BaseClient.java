@@ -1,98 +1,219 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import ru.practicum.shareit.exception.ValidationException;
 
 public class BaseClient {
+    private static final int MAX_PAGE_SIZE = 1000;
+    // Headers that describe the server connection rather than the response itself.
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade", "content-length");
+
     protected final RestTemplate rest;
+    @Nullable
+    private final WebClient web;
+    @Nullable
+    private final ResponseCache cache;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null);
+    }
+
+    /**
+     * @param web when present, requests are sent through it without blocking the calling thread;
+     *            {@code rest} then only expands URIs and serves {@link #stream}
+     */
+    public BaseClient(RestTemplate rest, @Nullable WebClient web, @Nullable ResponseCache cache) {
         this.rest = rest;
+        this.web = web;
+        this.cache = cache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Integer userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, Integer userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * GET through the response cache: a fresh entry is returned without calling the server,
+     * a stale one is revalidated with If-None-Match and its body is returned again on 304.
+     */
+    protected Mono<ResponseEntity<Object>> getCached(String path, Integer userId) {
+        if (cache == null) {
+            return get(path, userId);
+        }
+        URI uri = rest.getUriTemplateHandler().expand(path);
+        ResponseCache.Entry cached = cache.get(uri, userId);
+        if (cached != null && cache.isFresh(cached)) {
+            return Mono.just(fromCache(cached));
+        }
+
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.etag());
+        }
+        return exchange(HttpMethod.GET, uri, headers, null).map(shareitServerResponse -> {
+            if (cached != null && shareitServerResponse.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                cache.put(uri, userId, cached.etag(), cached.body());
+                return fromCache(cached);
+            }
+            String etag = shareitServerResponse.getHeaders().getETag();
+            if (shareitServerResponse.getStatusCode().is2xxSuccessful() && etag != null) {
+                cache.put(uri, userId, etag, shareitServerResponse.getBody());
+            } else if (shareitServerResponse.getStatusCode().isError()) {
+                cache.remove(uri, userId);
+            }
+            return toGatewayResponse(shareitServerResponse);
+        });
+    }
+
+    protected Mono<ResponseEntity<Object>> getPage(String path, Integer userId, @Nullable Map<String, Object> parameters,
+                                                   @Nullable String cursor, Integer size) {
+        if (size == null || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Parameter size should be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Map<String, Object> pageParameters = parameters == null ? new HashMap<>() : new HashMap<>(parameters);
+        pageParameters.put("size", size);
+        String pagePath = path + (path.contains("?") ? "&" : "?") + "size={size}";
+        if (cursor != null) {
+            pageParameters.put("cursor", cursor);
+            pagePath += "&cursor={cursor}";
+        }
+        return get(pagePath, userId, pageParameters);
+    }
+
+    // Copies the server response to the client as it arrives instead of reading it into memory first.
+    protected void stream(String path, Integer userId, @Nullable Map<String, Object> parameters,
+                          HttpServletResponse response) throws IOException {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+        request.getHeaders().putAll(defaultHeaders(userId));
+        request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+
+        try (ClientHttpResponse shareitServerResponse = request.execute()) {
+            response.setStatus(shareitServerResponse.getStatusCode().value());
+            MediaType contentType = shareitServerResponse.getHeaders().getContentType();
+            if (contentType != null) {
+                response.setContentType(contentType.toString());
+            }
+            StreamUtils.copy(shareitServerResponse.getBody(), response.getOutputStream());
+        }
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Integer userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Integer userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, Integer userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, Integer userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Integer userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Integer userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Integer userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Integer userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Integer userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Integer userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        Mono<ResponseEntity<byte[]>> response = exchange(method, uri, defaultHeaders(userId), body);
+        if (cache != null && method != HttpMethod.GET) {
+            // Dropped again once the server has answered, before the caller sees the response:
+            // a read that ran concurrently with the write may have cached the old body in between.
+            cache.invalidate(uri);
+            response = response
+                    .doOnNext(written -> cache.invalidate(uri))
+                    .doOnError(failed -> cache.invalidate(uri));
+        }
+        return response.map(BaseClient::toGatewayResponse);
+    }
+
+    // The server response is passed through as raw bytes; error statuses are returned, not thrown.
+    private <T> Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers, @Nullable T body) {
+        if (web == null) {
+            return Mono.fromCallable(() -> {
+                try {
+                    return rest.exchange(uri, method, new HttpEntity<>(body, headers), byte[].class);
+                } catch (HttpStatusCodeException e) {
+                    return new ResponseEntity<>(e.getResponseBodyAsByteArray(), e.getResponseHeaders(),
+                            e.getStatusCode());
+                }
+            });
         }
-        return prepareGatewayResponse(shareitServerResponse);
+
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(uri)
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        return (body != null ? request.bodyValue(body) : request)
+                .exchangeToMono(response -> response.toEntity(byte[].class));
     }
 
     private HttpHeaders defaultHeaders(Integer userId) {
@@ -105,17 +226,20 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
+    private static ResponseEntity<Object> fromCache(ResponseCache.Entry cached) {
+        return ResponseEntity.ok()
+                .eTag(cached.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cached.body());
+    }
 
-        return responseBuilder.build();
+    private static ResponseEntity<Object> toGatewayResponse(ResponseEntity<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.client;
+
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Non-blocking calls to the server, enabled with shareit-gateway.client.mode=reactive.
+ * A request then holds a Tomcat thread only while it is validated and forwarded,
+ * not while the server is working on it. Connect and response timeouts are those of the blocking client,
+ * so a slow server does not hold connections and subscribers longer in this mode.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-gateway.client.mode", havingValue = "reactive")
+public class ReactiveClientConfig {
+
+    @Bean
+    public WebClient shareitServerWebClient(WebClient.Builder builder,
+            @Value("${shareit-gateway.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-gateway.http.response-timeout:30s}") Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build();
+        return builder
+                .clientConnector(new JdkClientHttpConnector(httpClient))
+                .filter(responseTimeout(responseTimeout))
+                .build();
+    }
+
+    // Like the response timeout of the blocking client: the longest wait for the response headers and then
+    // between two chunks of the body, so a response that keeps streaming is not cut off.
+    static ExchangeFilterFunction responseTimeout(Duration timeout) {
+        return (request, next) -> next.exchange(request)
+                .timeout(timeout)
+                .map(response -> response.mutate()
+                        .body(body -> body.timeout(timeout))
+                        .build());
+    }
+
+    // Only in this mode can Tomcat keep many more connections open than it has threads, since a waiting
+    // request no longer holds one; in blocking mode extra connections would just queue for a thread.
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> reactiveTomcatConnections(
+            @Value("${shareit-gateway.client.reactive-max-connections:10000}") int maxConnections) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            if (connector.getProtocolHandler() instanceof AbstractProtocol<?> protocol) {
+                protocol.setMaxConnections(maxConnections);
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of raw server response bodies for single-resource reads, keyed by path and X-Sharer-User-Id.
+ * An entry is served without calling the server for shareit-gateway.cache.ttl, then revalidated with its ETag.
+ * Writes through this gateway drop the entries of their resource at once; an item or request that changes
+ * through other resources (bookings, comments, user names) or through another gateway instance is seen
+ * at most one TTL later.
+ */
+@Component
+public class ResponseCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Ticker ticker;
+    // The responses of one path for every user, so that a write drops them with a single removal.
+    // The per-user maps are copied on write and never changed afterwards.
+    private final Cache<String, Map<Integer, Entry>> entries;
+
+    @Autowired
+    public ResponseCache(@Value("${shareit-gateway.cache.max-entries:10000}") int maxEntries,
+                         @Value("${shareit-gateway.cache.ttl:2s}") Duration ttl) {
+        this(maxEntries, ttl, Ticker.systemTicker());
+    }
+
+    ResponseCache(int maxEntries, Duration ttl, Ticker ticker) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(Math.max(maxEntries, 0))
+                .weigher((String path, Map<Integer, Entry> byUser) -> byUser.size())
+                .executor(Runnable::run)
+                .build();
+    }
+
+    public Entry get(URI uri, Integer userId) {
+        Map<Integer, Entry> byUser = entries.getIfPresent(uri.getPath());
+        return byUser == null ? null : byUser.get(userId);
+    }
+
+    public boolean isFresh(Entry entry) {
+        return ticker.read() - entry.freshUntilNanos() < 0;
+    }
+
+    public void put(URI uri, Integer userId, String etag, byte[] body) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        Entry entry = new Entry(etag, body, ticker.read() + ttlNanos);
+        entries.asMap().compute(uri.getPath(), (path, byUser) -> {
+            Map<Integer, Entry> updated = byUser == null ? new HashMap<>() : new HashMap<>(byUser);
+            updated.put(userId, entry);
+            return updated;
+        });
+    }
+
+    public void remove(URI uri, Integer userId) {
+        entries.asMap().computeIfPresent(uri.getPath(), (path, byUser) -> {
+            Map<Integer, Entry> updated = new HashMap<>(byUser);
+            updated.remove(userId);
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    /**
+     * Drops cached responses of the resource addressed by a mutating call, for every user.
+     * /items/5/comment invalidates /items/5; calls on a collection such as POST /items create
+     * a new resource and invalidate nothing. Only single resources are cached, so there is nothing below them.
+     */
+    public void invalidate(URI mutated) {
+        String[] segments = mutated.getPath().split("/");
+        if (segments.length < 3) {
+            return;
+        }
+        entries.invalidate("/" + segments[1] + "/" + segments[2]);
+    }
+
+    public record Entry(String etag, byte[] body, long freshUntilNanos) {
+    }
+}
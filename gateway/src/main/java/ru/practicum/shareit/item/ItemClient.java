@@ -1,13 +1,17 @@
 package ru.practicum.shareit.item;
 
 import io.micrometer.common.util.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -18,45 +22,56 @@ import java.util.Map;
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory shareitServerRequestFactory,
+                      ObjectProvider<WebClient> webClient, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> shareitServerRequestFactory)
+                        .build(),
+                webClient.getIfAvailable(),
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> addItem(Integer ownerId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> addItem(Integer ownerId, ItemDto itemDto) {
         checkOwner(ownerId);
         return post("", ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Integer itemId, Integer ownerId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> addItems(Integer ownerId, List<ItemDto> itemDtos) {
+        checkOwner(ownerId);
+        return post("/batch", ownerId, itemDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(Integer itemId, Integer ownerId, ItemDto itemDto) {
         checkId(itemId);
         return patch("/" + itemId, ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemsByOwner(Integer ownerId) {
+    public Mono<ResponseEntity<Object>> getItemsByOwner(Integer ownerId, String cursor, Integer size) {
         checkOwner(ownerId);
-        return get("", ownerId);
+        return getPage("", ownerId, null, cursor, size);
     }
 
-    public ResponseEntity<Object> getItemById(Integer itemId, Integer ownerId) {
+    public Mono<ResponseEntity<Object>> getItemById(Integer itemId, Integer ownerId) {
         checkOwner(ownerId);
         checkId(itemId);
-        return get("/" + itemId, ownerId);
+        return getCached("/" + itemId, ownerId);
     }
 
-    public ResponseEntity<Object> searchItems(String text, Integer ownerId) {
+    public Mono<ResponseEntity<Object>> searchItems(String text, Integer ownerId, Integer from, Integer size) {
         if (text == null || text.isBlank()) {
-            return ResponseEntity.ok(List.of());
+            return Mono.just(ResponseEntity.ok(List.of()));
         }
         checkOwner(ownerId);
-        return get("/search?text={text}", ownerId, Map.of("text", text));
+        checkPage(from, size);
+        return get("/search?text={text}&from={from}&size={size}", ownerId,
+                Map.of("text", text, "from", from, "size", size));
     }
 
-    public ResponseEntity<Object> addComment(Integer itemId, Integer userId, Map<String, String> body) {
+    public Mono<ResponseEntity<Object>> addComment(Integer itemId, Integer userId, Map<String, String> body) {
         if (StringUtils.isBlank(body.get("text"))) {
             throw new ValidationException("Comment should not be empty");
         }
@@ -64,12 +79,23 @@ public class ItemClient extends BaseClient {
         return post("/" + itemId + "/comment", userId, body);
     }
 
+    public Mono<ResponseEntity<Object>> getComments(Integer itemId, Integer userId, String cursor, Integer size) {
+        checkId(itemId);
+        return getPage("/" + itemId + "/comments", userId, null, cursor, size);
+    }
+
     private void checkOwner(Integer ownerId) {
         if (ownerId == null || ownerId < 1) {
             throw new ValidationException("OwnerId should not be not empty and positive");
         }
     }
 
+    private void checkPage(Integer from, Integer size) {
+        if (from < 0 || size < 1) {
+            throw new ValidationException("Parameter from should not be negative and size should be positive");
+        }
+    }
+
     private void checkId(Integer itemId) {
         if (itemId == null || itemId < 1) {
             throw new ValidationException("Id should be not empty and positive");
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -16,17 +20,28 @@ import java.util.Map;
 @RequiredArgsConstructor
 @Validated
 public class ItemController {
+    // The same limit as the server's, so that an oversized batch is rejected before it is forwarded.
+    private static final int MAX_BATCH_SIZE = 10_000;
+
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestHeader("X-Sharer-User-Id") Integer ownerId,
+    public Mono<ResponseEntity<Object>> addItem(@RequestHeader("X-Sharer-User-Id") Integer ownerId,
                                           @Valid @RequestBody ItemDto itemDto) {
         log.info("Creating item {}, ownerId={}", itemDto, ownerId);
         return itemClient.addItem(ownerId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addItems(@RequestHeader("X-Sharer-User-Id") Integer ownerId,
+                                                 @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                 List<@Valid ItemDto> itemDtos) {
+        log.info("Creating {} items, ownerId={}", itemDtos.size(), ownerId);
+        return itemClient.addItems(ownerId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@PathVariable Integer itemId,
+    public Mono<ResponseEntity<Object>> updateItem(@PathVariable Integer itemId,
                                              @RequestHeader("X-Sharer-User-Id") Integer ownerId,
                                              @RequestBody ItemDto itemDto) {
         log.info("Updating item with id {}, ownerId={}, data={}", itemId, ownerId, itemDto);
@@ -34,31 +49,44 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") Integer ownerId) {
-        log.info("Getting items for ownerId={}", ownerId);
-        return itemClient.getItemsByOwner(ownerId);
+    public Mono<ResponseEntity<Object>> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") Integer ownerId,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "20") Integer size) {
+        log.info("Getting items for ownerId={}, cursor={}, size={}", ownerId, cursor, size);
+        return itemClient.getItemsByOwner(ownerId, cursor, size);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@PathVariable Integer itemId,
+    public Mono<ResponseEntity<Object>> getItemById(@PathVariable Integer itemId,
                                               @RequestHeader("X-Sharer-User-Id") Integer ownerId) {
         log.info("Getting item with id={}, ownerId={}", itemId, ownerId);
         return itemClient.getItemById(itemId, ownerId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text,
+    public Mono<ResponseEntity<Object>> searchItems(@RequestParam String text,
+                                              @RequestParam(defaultValue = "0") Integer from,
+                                              @RequestParam(defaultValue = "20") Integer size,
                                               @RequestHeader("X-Sharer-User-Id") Integer ownerId) {
-        log.info("Searching items with text='{}', ownerId={}", text, ownerId);
-        return itemClient.searchItems(text, ownerId);
+        log.info("Searching items with text='{}', from={}, size={}, ownerId={}", text, from, size, ownerId);
+        return itemClient.searchItems(text, ownerId, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@PathVariable Integer itemId,
+    public Mono<ResponseEntity<Object>> addComment(@PathVariable Integer itemId,
                                              @RequestHeader("X-Sharer-User-Id") Integer userId,
                                              @RequestBody Map<String, String> body) {
         String commentText = body.get("text");
         log.info("Adding comment to itemId={}, userId={}, text='{}'", itemId, userId, commentText);
         return itemClient.addComment(itemId, userId, body);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public Mono<ResponseEntity<Object>> getComments(@PathVariable Integer itemId,
+                                              @RequestHeader("X-Sharer-User-Id") Integer userId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") Integer size) {
+        log.info("Getting comments of itemId={}, userId={}, cursor={}, size={}", itemId, userId, cursor, size);
+        return itemClient.getComments(itemId, userId, cursor, size);
+    }
 }
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 @Service
@@ -15,28 +19,32 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory shareitServerRequestFactory,
+                             ObjectProvider<WebClient> webClient, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> shareitServerRequestFactory)
+                        .build(),
+                webClient.getIfAvailable(),
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> create(Integer userId, ItemRequestDto dto) {
+    public Mono<ResponseEntity<Object>> create(Integer userId, ItemRequestDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> getOwnRequests(Integer userId) {
+    public Mono<ResponseEntity<Object>> getOwnRequests(Integer userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Integer userId) {
-        return get("/all?from={from}&size={size}", userId);
+    public Mono<ResponseEntity<Object>> getAllRequests(Integer userId, String cursor, Integer size) {
+        return getPage("/all", userId, null, cursor, size);
     }
 
-    public ResponseEntity<Object> getById(Integer userId, Integer requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getById(Integer userId, Integer requestId) {
+        return getCached("/" + requestId, userId);
     }
 }
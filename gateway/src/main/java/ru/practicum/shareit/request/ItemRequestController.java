@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 @RestController
@@ -17,26 +18,28 @@ public class ItemRequestController {
     private final ItemRequestClient client;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader("X-Sharer-User-Id") Integer userId,
+    public Mono<ResponseEntity<Object>> createRequest(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                                 @RequestBody @Valid ItemRequestDto requestDto) {
         log.info("Creating item request {}, userId={}", requestDto, userId);
         return client.create(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnRequests(@RequestHeader("X-Sharer-User-Id") Integer userId) {
+    public Mono<ResponseEntity<Object>> getOwnRequests(@RequestHeader("X-Sharer-User-Id") Integer userId) {
         log.info("Getting own item requests for userId={}", userId);
         return client.getOwnRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") Integer userId) {
-        log.info("Getting all item requests with pagination: userId={}", userId);
-        return client.getAllRequests(userId);
+    public Mono<ResponseEntity<Object>> getAllRequests(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "20") Integer size) {
+        log.info("Getting all item requests with pagination: userId={}, cursor={}, size={}", userId, cursor, size);
+        return client.getAllRequests(userId, cursor, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequest(@RequestHeader("X-Sharer-User-Id") Integer userId,
+    public Mono<ResponseEntity<Object>> getRequest(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                              @PathVariable Integer requestId) {
         log.info("Getting item request with id={}, userId={}", requestId, userId);
         return client.getById(userId, requestId);
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @Slf4j
@@ -17,32 +18,33 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@Valid @RequestBody UserDto userDto) {
         log.info("New request to create user: {}", userDto);
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable Integer userId,
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable Integer userId,
                                              @RequestBody UserDto userDto) {
         log.info("New request to update user: {}", userDto);
         return userClient.updateUser(userId, userDto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable Integer userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Integer userId) {
         log.info("New getUserById request for user with id {}.", userId);
         return userClient.getUserById(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        log.info("Display a list of all users");
-        return userClient.getAllUsers();
+    public Mono<ResponseEntity<Object>> getAllUsers(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") Integer size) {
+        log.info("Display a list of users: cursor={}, size={}", cursor, size);
+        return userClient.getAllUsers(cursor, size);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Integer userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable Integer userId) {
         log.info("New deleteUser request for user with id {}.", userId);
         return userClient.deleteUser(userId);
     }
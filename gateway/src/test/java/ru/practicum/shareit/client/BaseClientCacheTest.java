@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientCacheTest {
+    private static final String ITEM = "http://server/items/1";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private MockRestServiceServer server;
+    private ItemsClient client;
+
+    @BeforeEach
+    void init() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://server/items"));
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new ItemsClient(rest, new ResponseCache(100, Duration.ofSeconds(2), nanos::get));
+    }
+
+    @Test
+    void freshEntryIsServedWithoutCallingTheServer() {
+        server.expect(requestTo(ITEM)).andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess("{\"name\":\"Drill\"}", MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+
+        client.getItem().block();
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        ResponseEntity<Object> cached = client.getItem().block();
+
+        server.verify();
+        assertThat(cached.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(new String((byte[]) cached.getBody())).isEqualTo("{\"name\":\"Drill\"}");
+    }
+
+    @Test
+    void staleEntryIsRevalidatedAndNotModifiedReturnsTheCachedBody() {
+        server.expect(requestTo(ITEM)).andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess("{\"name\":\"Drill\"}", MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+        server.expect(requestTo(ITEM)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(etag("\"v1\"")));
+
+        client.getItem().block();
+        expire();
+        ResponseEntity<Object> revalidated = client.getItem().block();
+
+        server.verify();
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(new String((byte[]) revalidated.getBody())).isEqualTo("{\"name\":\"Drill\"}");
+    }
+
+    @Test
+    void changeMadeThroughAnotherResourceIsSeenOnceTheEntryIsStale() {
+        server.expect(requestTo(ITEM))
+                .andRespond(withSuccess("{\"lastBooking\":null}", MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+        // An approved booking changes the item without any call on /items.
+        server.expect(requestTo(ITEM)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withSuccess("{\"lastBooking\":{\"id\":7}}", MediaType.APPLICATION_JSON)
+                        .headers(etag("\"v2\"")));
+        server.expect(requestTo(ITEM)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v2\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        client.getItem().block();
+        expire();
+        ResponseEntity<Object> changed = client.getItem().block();
+        expire();
+        client.getItem().block();
+
+        server.verify();
+        assertThat(new String((byte[]) changed.getBody())).isEqualTo("{\"lastBooking\":{\"id\":7}}");
+    }
+
+    @Test
+    void writeDropsTheCachedEntryAfterTheServerAnswers() {
+        server.expect(requestTo(ITEM))
+                .andRespond(withSuccess("{\"name\":\"Drill\"}", MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+        server.expect(requestTo(ITEM)).andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess("{\"name\":\"Hammer\"}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(ITEM)).andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess("{\"name\":\"Hammer\"}", MediaType.APPLICATION_JSON).headers(etag("\"v2\"")));
+
+        client.getItem().block();
+        Mono<ResponseEntity<Object>> update = client.renameItem();
+        // A read between the start of the write and its response caches the old body again.
+        client.cache.put(URI.create(ITEM), 1, "\"v1\"", "{\"name\":\"Drill\"}".getBytes());
+        update.block();
+        client.getItem().block();
+
+        server.verify();
+    }
+
+    private void expire() {
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+    }
+
+    private static HttpHeaders etag(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        return headers;
+    }
+
+    private static class ItemsClient extends BaseClient {
+        final ResponseCache cache;
+
+        ItemsClient(RestTemplate rest, ResponseCache cache) {
+            super(rest, null, cache);
+            this.cache = cache;
+        }
+
+        Mono<ResponseEntity<Object>> getItem() {
+            return getCached("/1", 1);
+        }
+
+        Mono<ResponseEntity<Object>> renameItem() {
+            return patch("/1", 1, Map.of("name", "Hammer"));
+        }
+    }
+}
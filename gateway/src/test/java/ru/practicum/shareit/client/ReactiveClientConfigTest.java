@@ -0,0 +1,39 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReactiveClientConfigTest {
+    private static final Duration TIMEOUT = Duration.ofMillis(100);
+
+    @Test
+    void serverThatNeverAnswersTimesOut() {
+        WebClient web = WebClient.builder()
+                .exchangeFunction(request -> Mono.never())
+                .filter(ReactiveClientConfig.responseTimeout(TIMEOUT))
+                .build();
+
+        assertThatThrownBy(() -> web.get().uri("http://server/items/1").retrieve().toEntity(byte[].class).block())
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    void bodyThatStallsTimesOut() {
+        WebClient web = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK).body(Flux.never()).build()))
+                .filter(ReactiveClientConfig.responseTimeout(TIMEOUT))
+                .build();
+
+        assertThatThrownBy(() -> web.get().uri("http://server/items/1").retrieve().toEntity(byte[].class).block())
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+    private static final byte[] BODY = "{}".getBytes();
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final ResponseCache cache = new ResponseCache(3, Duration.ofSeconds(2), nanos::get);
+
+    @Test
+    void entriesAreKeptPerUser() {
+        cache.put(URI.create("http://server/items/1"), 1, "\"a\"", BODY);
+        cache.put(URI.create("http://server/users/1"), null, "\"u\"", BODY);
+
+        assertThat(cache.get(URI.create("http://server/items/1"), 1).etag()).isEqualTo("\"a\"");
+        assertThat(cache.get(URI.create("http://server/items/1"), 2)).isNull();
+        assertThat(cache.get(URI.create("http://server/users/1"), null).etag()).isEqualTo("\"u\"");
+    }
+
+    @Test
+    void entriesAreFreshForTheTtl() {
+        cache.put(URI.create("http://server/items/1"), 1, "\"a\"", BODY);
+        ResponseCache.Entry entry = cache.get(URI.create("http://server/items/1"), 1);
+
+        nanos.addAndGet(Duration.ofMillis(1999).toNanos());
+        assertThat(cache.isFresh(entry)).isTrue();
+
+        nanos.addAndGet(Duration.ofMillis(1).toNanos());
+        assertThat(cache.isFresh(entry)).isFalse();
+    }
+
+    @Test
+    void mutationDropsTheResourceForEveryUser() {
+        cache.put(URI.create("http://server/items/1"), 1, "\"a\"", BODY);
+        cache.put(URI.create("http://server/items/1"), 2, "\"b\"", BODY);
+        cache.put(URI.create("http://server/items/12"), 1, "\"c\"", BODY);
+
+        cache.invalidate(URI.create("http://server/items/1/comment"));
+
+        assertThat(cache.get(URI.create("http://server/items/1"), 1)).isNull();
+        assertThat(cache.get(URI.create("http://server/items/1"), 2)).isNull();
+        assertThat(cache.get(URI.create("http://server/items/12"), 1)).isNotNull();
+    }
+
+    @Test
+    void numberOfEntriesIsBounded() {
+        IntStream.rangeClosed(1, 10).forEach(i ->
+                cache.put(URI.create("http://server/users/" + i), null, "\"" + i + "\"", BODY));
+
+        long cached = IntStream.rangeClosed(1, 10)
+                .filter(i -> cache.get(URI.create("http://server/users/" + i), null) != null)
+                .count();
+        assertThat(cached).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void zeroEntriesDisablesTheCache() {
+        ResponseCache disabled = new ResponseCache(0, Duration.ofSeconds(2));
+
+        disabled.put(URI.create("http://server/users/1"), null, "\"1\"", BODY);
+
+        assertThat(disabled.get(URI.create("http://server/users/1"), null)).isNull();
+    }
+}
@@ -1,19 +1,40 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.pagination.CursorPage;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
 @RestController
 @RequestMapping("/bookings")
 @RequiredArgsConstructor
+@Validated
 public class BookingController {
+    // Every booking id of a batch is bound twice in one statement, well below the JDBC parameter limit.
+    static final int MAX_BATCH_SIZE = 1000;
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingDto create(@RequestBody BookingDto bookingDto,
@@ -34,6 +55,16 @@ public class BookingController {
         return approvedBooking;
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> decide(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                 List<@Valid BookingDecisionDto> decisions,
+                                                 @RequestHeader("X-Sharer-User-Id") Integer ownerId) {
+        log.info("New request to decide on {} bookings", decisions.size());
+        List<BookingDecisionResultDto> results = bookingService.decideBookings(decisions, ownerId);
+        log.info("Booking decisions applied: {}", results);
+        return results;
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto get(@PathVariable Integer bookingId,
                           @RequestHeader("X-Sharer-User-Id") Integer userId) {
@@ -44,21 +75,62 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getUserBookings(@RequestParam(defaultValue = "ALL") String state,
-                                            @RequestHeader("X-Sharer-User-Id") Integer userId) {
+    public ResponseEntity<List<BookingDto>> getUserBookings(@RequestParam(defaultValue = "ALL") String state,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = CursorPage.DEFAULT_SIZE)
+                                                            Integer size,
+                                                            @RequestHeader("X-Sharer-User-Id") Integer userId) {
         log.info("New request to get user bookings");
-        List<BookingDto> bookings = bookingService.getUserBookings(userId, state);
+        CursorPage<BookingDto> bookings = bookingService.getUserBookings(userId, state, cursor, size);
         log.info("User bookings successfully displayed");
-        return bookings;
+        return bookings.toResponseEntity();
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(@RequestParam(defaultValue = "ALL") String state,
-                                             @RequestHeader("X-Sharer-User-Id") Integer ownerId) {
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestParam(defaultValue = "ALL") String state,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = CursorPage.DEFAULT_SIZE)
+                                                             Integer size,
+                                                             @RequestHeader("X-Sharer-User-Id") Integer ownerId) {
         log.info("New request to get owner bookings");
-        List<BookingDto> bookings = bookingService.getOwnerBookings(ownerId, state);
+        CursorPage<BookingDto> bookings = bookingService.getOwnerBookings(ownerId, state, cursor, size);
         log.info("Owner bookings successfully displayed");
-        return bookings;
+        return bookings.toResponseEntity();
+    }
+
+    @GetMapping("/summary")
+    public BookingSummaryDto getUserBookingSummary(@RequestHeader("X-Sharer-User-Id") Integer userId) {
+        log.info("New request to get user booking summary");
+        BookingSummaryDto summary = bookingService.getUserBookingSummary(userId);
+        log.info("User booking summary successfully displayed");
+        return summary;
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getOwnerBookingSummary(@RequestHeader("X-Sharer-User-Id") Integer ownerId) {
+        log.info("New request to get owner booking summary");
+        BookingSummaryDto summary = bookingService.getOwnerBookingSummary(ownerId);
+        log.info("Owner booking summary successfully displayed");
+        return summary;
+    }
+
+    @GetMapping(value = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamOwnerBookings(@RequestParam(defaultValue = "ALL") String state,
+                                    @RequestHeader("X-Sharer-User-Id") Integer ownerId,
+                                    HttpServletResponse response) throws IOException {
+        log.info("New request to stream owner bookings");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream output = response.getOutputStream();
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        bookingService.streamOwnerBookings(ownerId, state, booking -> {
+            try {
+                writer.writeValue(output, booking);
+                output.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Owner bookings successfully streamed");
     }
 }
 
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.model.BookingSnapshot;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -22,6 +25,10 @@ public class BookingMapper {
         );
     }
 
+    public static BookingDecisionResultDto toDecisionResult(Integer bookingId, BookingStatus status, String error) {
+        return new BookingDecisionResultDto(bookingId, status, error);
+    }
+
     public static BookingShortDto toShortDto(Booking booking) {
         if (booking == null) {
             return null;
@@ -34,6 +41,30 @@ public class BookingMapper {
         );
     }
 
+    public static BookingShortDto toShortDto(BookingSnapshot snapshot) {
+        if (snapshot == null) {
+            return null;
+        }
+        return new BookingShortDto(
+                snapshot.getBookingId(),
+                snapshot.getBookerId(),
+                snapshot.getStart(),
+                snapshot.getEnd()
+        );
+    }
+
+    public static BookingSnapshot toSnapshot(Booking booking) {
+        if (booking == null) {
+            return null;
+        }
+        return new BookingSnapshot(
+                booking.getId(),
+                booking.getBooker().getId(),
+                booking.getStart(),
+                booking.getEnd()
+        );
+    }
+
     public static Booking toBooking(BookingDto bookingDto, Item item, User booker) {
         return new Booking(
                 bookingDto.getId(),
@@ -1,91 +1,177 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Sort;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Integer> {
-    List<Booking> findByBookerId(Integer bookerId, Sort sort);
-
-    List<Booking> findByItemOwnerId(Integer ownerId, Sort sort);
-
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id = :itemId " +
-            "AND b.status = :status " +
-            "AND b.start < :now " +
-            "ORDER BY b.start DESC")
-    Booking findLastBooking(Integer itemId, BookingStatus status, LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id = ?1 AND b.start > ?2 AND b.status = 'APPROVED' " +
-            "ORDER BY b.start ASC " +
-            "LIMIT 1")
-    Booking findNextBooking(Integer itemId, LocalDateTime now);
+    // The redundant start bound lets the database use it as an index range condition.
+    String KEYSET_PAGE = " AND b.start <= :cursorStart" +
+            " AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))" +
+            " ORDER BY b.start DESC, b.id DESC";
+    // Builds BookingDto rows straight from one joined SELECT, so listings load no entities or lazy associations.
+    String DTO_SELECT = "SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.request.id, u.id, u.name, u.email) " +
+            "FROM Booking b JOIN b.item i JOIN b.booker u ";
+    String OWNER_STREAM = DTO_SELECT + "WHERE b.ownerId = :ownerId";
+    String STREAM_ORDER = " ORDER BY b.start DESC, b.id DESC";
+    String STREAM_FETCH_SIZE = "500";
+    // Counts for every BookingState in one pass, with the same conditions as the listings below.
+    String SUMMARY_SELECT = "SELECT new ru.practicum.shareit.booking.dto.BookingSummaryDto(COUNT(b), " +
+            "COALESCE(SUM(CASE WHEN b.start <= :now AND b.end >= :now THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.end < :now THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.start > :now THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END), 0)) " +
+            "FROM Booking b ";
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId" + KEYSET_PAGE)
+    List<BookingDto> findByBookerId(Integer userId, LocalDateTime cursorStart, Integer cursorId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE b.ownerId = :ownerId" + KEYSET_PAGE)
+    List<BookingDto> findByItemOwnerId(Integer ownerId, LocalDateTime cursorStart, Integer cursorId, Limit limit);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.item.id = :itemId " +
+            "AND b.status IN ('WAITING', 'APPROVED') AND b.start < :end AND b.end > :start")
+    boolean existsOverlappingBooking(Integer itemId, LocalDateTime start, LocalDateTime end);
+
+    @Query(DTO_SELECT + "WHERE b.id = :bookingId")
+    Optional<BookingDto> findDtoById(Integer bookingId);
+
+    // Checks ownership and status and writes the decision in one statement; 0 means the booking was not decided.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id = :bookingId AND b.status = 'WAITING' " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.ownerId = :ownerId)")
+    int decideWaitingBooking(Integer bookingId, Integer ownerId, BookingStatus status);
+
+    // Loads a batch of bookings to decide on together with their items, locked until the decision is written.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item WHERE b.id IN :bookingIds ORDER BY b.id")
+    List<Booking> findAllForDecision(List<Integer> bookingIds);
+
+    // Approves and rejects a whole batch with one statement; bookings no longer waiting are left as they are.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = CASE WHEN b.id IN :approvedIds " +
+            "THEN ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "ELSE ru.practicum.shareit.booking.model.BookingStatus.REJECTED END " +
+            "WHERE b.id IN :bookingIds AND b.status = 'WAITING'")
+    int decideWaitingBookings(List<Integer> bookingIds, List<Integer> approvedIds);
 
     boolean existsByBookerIdAndItemIdAndEndBeforeAndStatus(Integer userId, Integer itemId,
                                                            LocalDateTime end, BookingStatus status);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.start <= :now AND b.end >= :now ORDER BY b.start DESC")
-    List<Booking> findCurrentBookingsByUser(Integer userId, LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.ownerId = :ownerId AND b.start <= :now AND b.end >= :now ORDER BY b.start DESC")
-    List<Booking> findCurrentBookingsByOwner(Integer ownerId, LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.end < :now ORDER BY b.start DESC")
-    List<Booking> findPastBookingsByUser(Integer userId, LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.ownerId = :ownerId AND b.end < :now ORDER BY b.start DESC")
-    List<Booking> findPastBookingsByOwner(Integer ownerId, LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.start > :now ORDER BY b.start DESC")
-    List<Booking> findFutureBookingsByUser(Integer userId, LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.ownerId = :ownerId AND b.start > :now ORDER BY b.start DESC")
-    List<Booking> findFutureBookingsByOwner(Integer ownerId, LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.status = 'WAITING' ORDER BY b.start DESC")
-    List<Booking> findWaitingBookingsByUser(Integer userId);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.ownerId = :ownerId AND b.status = 'WAITING' ORDER BY b.start DESC")
-    List<Booking> findWaitingBookingsByOwner(Integer ownerId);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.status = 'REJECTED' ORDER BY b.start DESC")
-    List<Booking> findRejectedBookingsByUser(Integer userId);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.ownerId = :ownerId AND b.status = 'REJECTED' ORDER BY b.start DESC")
-    List<Booking> findRejectedBookingsByOwner(Integer ownerId);
-
-    @Query("""
-    SELECT b FROM Booking b
-    WHERE b.item.id IN :itemIds
-      AND b.status = 'APPROVED'
-      AND b.start < :now
-      AND b.start = (
-          SELECT MAX(b2.start) FROM Booking b2
-          WHERE b2.item.id = b.item.id
-            AND b2.status = 'APPROVED'
-            AND b2.start < :now
-      )
-""")
+    @Query(SUMMARY_SELECT + "WHERE b.booker.id = :userId")
+    BookingSummaryDto summarizeByBooker(Integer userId, LocalDateTime now);
+
+    @Query(SUMMARY_SELECT + "WHERE b.ownerId = :ownerId")
+    BookingSummaryDto summarizeByOwner(Integer ownerId, LocalDateTime now);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND b.start <= :now AND b.end >= :now" + KEYSET_PAGE)
+    List<BookingDto> findCurrentBookingsByUser(Integer userId, LocalDateTime now,
+                                            LocalDateTime cursorStart, Integer cursorId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE b.ownerId = :ownerId AND b.start <= :now AND b.end >= :now" +
+            KEYSET_PAGE)
+    List<BookingDto> findCurrentBookingsByOwner(Integer ownerId, LocalDateTime now,
+                                             LocalDateTime cursorStart, Integer cursorId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND b.end < :now" + KEYSET_PAGE)
+    List<BookingDto> findPastBookingsByUser(Integer userId, LocalDateTime now,
+                                         LocalDateTime cursorStart, Integer cursorId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE b.ownerId = :ownerId AND b.end < :now" + KEYSET_PAGE)
+    List<BookingDto> findPastBookingsByOwner(Integer ownerId, LocalDateTime now,
+                                          LocalDateTime cursorStart, Integer cursorId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND b.start > :now" + KEYSET_PAGE)
+    List<BookingDto> findFutureBookingsByUser(Integer userId, LocalDateTime now,
+                                           LocalDateTime cursorStart, Integer cursorId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE b.ownerId = :ownerId AND b.start > :now" + KEYSET_PAGE)
+    List<BookingDto> findFutureBookingsByOwner(Integer ownerId, LocalDateTime now,
+                                            LocalDateTime cursorStart, Integer cursorId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND b.status = 'WAITING'" + KEYSET_PAGE)
+    List<BookingDto> findWaitingBookingsByUser(Integer userId,
+                                               LocalDateTime cursorStart, Integer cursorId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE b.ownerId = :ownerId AND b.status = 'WAITING'" + KEYSET_PAGE)
+    List<BookingDto> findWaitingBookingsByOwner(Integer ownerId,
+                                             LocalDateTime cursorStart, Integer cursorId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND b.status = 'REJECTED'" + KEYSET_PAGE)
+    List<BookingDto> findRejectedBookingsByUser(Integer userId,
+                                             LocalDateTime cursorStart, Integer cursorId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE b.ownerId = :ownerId AND b.status = 'REJECTED'" + KEYSET_PAGE)
+    List<BookingDto> findRejectedBookingsByOwner(Integer ownerId,
+                                              LocalDateTime cursorStart, Integer cursorId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(OWNER_STREAM + STREAM_ORDER)
+    Stream<BookingDto> streamByItemOwnerId(Integer ownerId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(OWNER_STREAM + " AND b.start <= :now AND b.end >= :now" + STREAM_ORDER)
+    Stream<BookingDto> streamCurrentBookingsByOwner(Integer ownerId, LocalDateTime now);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(OWNER_STREAM + " AND b.end < :now" + STREAM_ORDER)
+    Stream<BookingDto> streamPastBookingsByOwner(Integer ownerId, LocalDateTime now);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(OWNER_STREAM + " AND b.start > :now" + STREAM_ORDER)
+    Stream<BookingDto> streamFutureBookingsByOwner(Integer ownerId, LocalDateTime now);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(OWNER_STREAM + " AND b.status = :status" + STREAM_ORDER)
+    Stream<BookingDto> streamBookingsByOwnerAndStatus(Integer ownerId, BookingStatus status);
+
+    // Exactly one row per item: the latest approved booking that has started, ties broken by id.
+    // The ids are matched on items so that every item is one probe of bookings_item_status_start_idx:
+    // with the IN list on bookings itself H2 scans the whole index for the start_date range instead.
+    @Query(value = """
+    SELECT b.id, b.start_date, b.end_date, b.item_id, b.booker_id, b.status, b.owner_id
+    FROM (
+        SELECT bk.*, ROW_NUMBER() OVER (PARTITION BY bk.item_id ORDER BY bk.start_date DESC, bk.id DESC) AS rn
+        FROM items i
+        JOIN bookings bk ON bk.item_id = i.id
+        WHERE i.id IN (:itemIds)
+          AND bk.status = 'APPROVED'
+          AND bk.start_date < :now
+    ) b
+    WHERE b.rn = 1
+""", nativeQuery = true)
     List<Booking> findLastBookingsForItems(List<Integer> itemIds, LocalDateTime now);
 
-    @Query("""
-    SELECT b FROM Booking b
-    WHERE b.item.id IN :itemIds
-      AND b.status = 'APPROVED'
-      AND b.start > :now
-      AND b.start = (
-          SELECT MIN(b2.start) FROM Booking b2
-          WHERE b2.item.id = b.item.id
-            AND b2.status = 'APPROVED'
-            AND b2.start > :now
-      )
-""")
+    // Exactly one row per item: the earliest approved booking that has not started yet, ties broken by id.
+    @Query(value = """
+    SELECT b.id, b.start_date, b.end_date, b.item_id, b.booker_id, b.status, b.owner_id
+    FROM (
+        SELECT bk.*, ROW_NUMBER() OVER (PARTITION BY bk.item_id ORDER BY bk.start_date ASC, bk.id ASC) AS rn
+        FROM items i
+        JOIN bookings bk ON bk.item_id = i.id
+        WHERE i.id IN (:itemIds)
+          AND bk.status = 'APPROVED'
+          AND bk.start_date > :now
+    ) b
+    WHERE b.rn = 1
+""", nativeQuery = true)
     List<Booking> findNextBookingsForItems(List<Integer> itemIds, LocalDateTime now);
 
 }
\ No newline at end of file
@@ -1,17 +1,30 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto createBooking(BookingDto bookingDto, Integer userId);
 
     BookingDto approveBooking(Integer bookingId, Integer ownerId, boolean approved);
 
+    List<BookingDecisionResultDto> decideBookings(List<BookingDecisionDto> decisions, Integer ownerId);
+
     BookingDto getBookingById(Integer bookingId, Integer userId);
 
-    List<BookingDto> getUserBookings(Integer userId, String state);
+    CursorPage<BookingDto> getUserBookings(Integer userId, String state, String cursor, Integer size);
+
+    CursorPage<BookingDto> getOwnerBookings(Integer ownerId, String state, String cursor, Integer size);
+
+    BookingSummaryDto getUserBookingSummary(Integer userId);
+
+    BookingSummaryDto getOwnerBookingSummary(Integer ownerId);
 
-    List<BookingDto> getOwnerBookings(Integer ownerId, String state);
+    void streamOwnerBookings(Integer ownerId, String state, Consumer<BookingDto> action);
 }
@@ -1,36 +1,83 @@
 package ru.practicum.shareit.booking;
 
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ConstraintViolations;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemBookingSnapshots;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.OwnerItemsChangedEvent;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.user.UserExistenceFilter;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
 
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingOverlapCheck overlapCheck;
+    private final ItemBookingSnapshots itemBookingSnapshots;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserExistenceFilter userExistenceFilter;
+
+    public BookingServiceImpl(BookingRepository bookingRepository, ItemRepository itemRepository,
+                              UserRepository userRepository,
+                              @Value("${shareit.bookings.overlap-check:lock}") BookingOverlapCheck overlapCheck,
+                              ItemBookingSnapshots itemBookingSnapshots,
+                              ApplicationEventPublisher eventPublisher,
+                              UserExistenceFilter userExistenceFilter) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.overlapCheck = overlapCheck;
+        this.itemBookingSnapshots = itemBookingSnapshots;
+        this.eventPublisher = eventPublisher;
+        this.userExistenceFilter = userExistenceFilter;
+    }
 
     @Override
+    @Transactional
     public BookingDto createBooking(BookingDto bookingDto, Integer userId) {
         User booker = getUser(userId);
-        Item item = itemRepository.findById(bookingDto.getItemId())
+        // With the database constraint in place overlaps are rejected by the insert itself;
+        // otherwise bookings of the item are serialized on its row lock and checked with a query.
+        Optional<Item> found = overlapCheck == BookingOverlapCheck.LOCK
+                ? itemRepository.findByIdForUpdate(bookingDto.getItemId())
+                : itemRepository.findById(bookingDto.getItemId());
+        Item item = found
                 .orElseThrow(() -> new NotFoundException("Item with id = " + bookingDto.getItemId() + " not found"));
 
         if (!item.getAvailable()) {
@@ -39,30 +86,109 @@ public class BookingServiceImpl implements BookingService {
         if (item.getOwnerId().equals(userId)) {
             throw new ForbiddenException("Owner cannot book their own item");
         }
+        // Timestamps are stored with microsecond precision, so the check has to compare the values
+        // as they will be stored: otherwise a booking ending where the next one starts may overlap it.
+        bookingDto.setStart(bookingDto.getStart().truncatedTo(ChronoUnit.MICROS));
+        bookingDto.setEnd(bookingDto.getEnd().truncatedTo(ChronoUnit.MICROS));
+
+        if (overlapCheck == BookingOverlapCheck.LOCK
+                && bookingRepository.existsOverlappingBooking(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            throw overlapConflict(item);
+        }
 
         bookingDto.setStatus(BookingStatus.WAITING);
         Booking booking = BookingMapper.toBooking(bookingDto, item, booker);
 
-        return BookingMapper.toDto(bookingRepository.save(booking));
+        try {
+            return BookingMapper.toDto(bookingRepository.save(booking));
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, OVERLAP_CONSTRAINT)) {
+                throw overlapConflict(item);
+            }
+            throw e;
+        }
     }
 
     @Override
+    @Transactional
     public BookingDto approveBooking(Integer bookingId, Integer ownerId, boolean approved) {
-        Booking booking = getBooking(bookingId);
-        if (!booking.getItem().getOwnerId().equals(ownerId)) {
-            throw new ForbiddenException("Only the owner can approve or reject a booking");
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        // The update only matches a waiting booking of the owner, so of two concurrent decisions only one is written.
+        // Why a decision was refused is looked up only when it was.
+        if (bookingRepository.decideWaitingBooking(bookingId, ownerId, status) == 0) {
+            throw decisionRefused(bookingId, ownerId);
         }
-        if (booking.getStatus() != BookingStatus.WAITING) {
-            throw new ValidationException("Booking already approved or rejected");
+        BookingDto booking = bookingRepository.findDtoById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Booking with id = " + bookingId + " not found"));
+
+        // Waiting and rejected bookings are not shown with items, so only an approval changes owner listings.
+        if (approved) {
+            itemBookingSnapshots.recordApproval(BookingMapper.toBooking(booking,
+                    itemRepository.getReferenceById(booking.getItemId()),
+                    userRepository.getReferenceById(booking.getBooker().getId())), LocalDateTime.now());
+            eventPublisher.publishEvent(new OwnerItemsChangedEvent(ownerId));
         }
+        return booking;
+    }
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return BookingMapper.toDto(bookingRepository.save(booking));
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> decideBookings(List<BookingDecisionDto> decisions, Integer ownerId) {
+        if (decisions.isEmpty()) {
+            return List.of();
+        }
+        if (decisions.stream().anyMatch(decision -> decision.getBookingId() == null || decision.getApproved() == null)) {
+            throw new ValidationException("Each decision must have a booking id and an approved flag");
+        }
+        List<Integer> bookingIds = decisions.stream().map(BookingDecisionDto::getBookingId).distinct().toList();
+        Map<Integer, Booking> bookings = bookingRepository.findAllForDecision(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        Set<Integer> decidedIds = new HashSet<>();
+        List<Integer> approvedIds = new ArrayList<>();
+        List<Booking> approvedBookings = new ArrayList<>();
+        for (BookingDecisionDto decision : decisions) {
+            Integer bookingId = decision.getBookingId();
+            Booking booking = bookings.get(bookingId);
+            String error;
+            if (booking == null) {
+                error = "Booking with id = " + bookingId + " not found";
+            } else if (!booking.getItem().getOwnerId().equals(ownerId)) {
+                error = "Only the owner can approve or reject a booking";
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                error = "Booking already approved or rejected";
+            } else if (!decidedIds.add(bookingId)) {
+                error = "Booking is decided more than once in the batch";
+            } else {
+                error = null;
+            }
+
+            if (error != null) {
+                results.add(BookingMapper.toDecisionResult(bookingId, null, error));
+            } else if (decision.getApproved()) {
+                approvedIds.add(bookingId);
+                approvedBookings.add(booking);
+                results.add(BookingMapper.toDecisionResult(bookingId, BookingStatus.APPROVED, null));
+            } else {
+                results.add(BookingMapper.toDecisionResult(bookingId, BookingStatus.REJECTED, null));
+            }
+        }
+
+        if (!approvedBookings.isEmpty()) {
+            itemBookingSnapshots.recordApprovals(approvedBookings, LocalDateTime.now());
+            eventPublisher.publishEvent(new OwnerItemsChangedEvent(ownerId));
+        }
+        // The bookings are locked since they were read, so every decided one is still waiting here.
+        if (!decidedIds.isEmpty()) {
+            bookingRepository.decideWaitingBookings(new ArrayList<>(decidedIds), approvedIds);
+        }
+        return results;
     }
 
     @Override
     public BookingDto getBookingById(Integer bookingId, Integer userId) {
-        getUser(userId);
+        userExistenceFilter.requireExists(userId);
         Booking booking = getBooking(bookingId);
         if (!booking.getBooker().getId().equals(userId)
                 && !booking.getItem().getOwnerId().equals(userId)) {
@@ -72,43 +198,94 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getUserBookings(Integer userId, String state) {
-        getUser(userId);
+    public CursorPage<BookingDto> getUserBookings(Integer userId, String state, String cursor, Integer size) {
+        userExistenceFilter.requireExists(userId);
         BookingState bookingState = BookingState.from(state);
         LocalDateTime now = LocalDateTime.now();
+        Cursor after = Cursor.descending(cursor);
+        LocalDateTime start = after.getKey();
+        Integer id = after.getId();
+        Limit limit = CursorPage.limit(size);
 
-        List<Booking> bookings = switch (bookingState) {
-            case ALL -> bookingRepository.findByBookerId(userId, Sort.by("start").descending());
-            case CURRENT -> bookingRepository.findCurrentBookingsByUser(userId, now);
-            case PAST -> bookingRepository.findPastBookingsByUser(userId, now);
-            case FUTURE -> bookingRepository.findFutureBookingsByUser(userId, now);
-            case WAITING -> bookingRepository.findWaitingBookingsByUser(userId);
-            case REJECTED -> bookingRepository.findRejectedBookingsByUser(userId);
+        List<BookingDto> bookings = switch (bookingState) {
+            case ALL -> bookingRepository.findByBookerId(userId, start, id, limit);
+            case CURRENT -> bookingRepository.findCurrentBookingsByUser(userId, now, start, id, limit);
+            case PAST -> bookingRepository.findPastBookingsByUser(userId, now, start, id, limit);
+            case FUTURE -> bookingRepository.findFutureBookingsByUser(userId, now, start, id, limit);
+            case WAITING -> bookingRepository.findWaitingBookingsByUser(userId, start, id, limit);
+            case REJECTED -> bookingRepository.findRejectedBookingsByUser(userId, start, id, limit);
         };
 
-        return bookings.stream()
-                .map(BookingMapper::toDto)
-                .collect(Collectors.toList());
+        return CursorPage.of(bookings, size, BookingServiceImpl::cursorOf, Function.identity());
     }
 
     @Override
-    public List<BookingDto> getOwnerBookings(Integer ownerId, String state) {
-        getUser(ownerId);
+    public CursorPage<BookingDto> getOwnerBookings(Integer ownerId, String state, String cursor, Integer size) {
+        userExistenceFilter.requireExists(ownerId);
         BookingState bookingState = BookingState.from(state);
         LocalDateTime now = LocalDateTime.now();
+        Cursor after = Cursor.descending(cursor);
+        LocalDateTime start = after.getKey();
+        Integer id = after.getId();
+        Limit limit = CursorPage.limit(size);
 
-        List<Booking> bookings = switch (bookingState) {
-            case ALL -> bookingRepository.findByItemOwnerId(ownerId, Sort.by("start").descending());
-            case CURRENT -> bookingRepository.findCurrentBookingsByOwner(ownerId, now);
-            case PAST -> bookingRepository.findPastBookingsByOwner(ownerId, now);
-            case FUTURE -> bookingRepository.findFutureBookingsByOwner(ownerId, now);
-            case WAITING -> bookingRepository.findWaitingBookingsByOwner(ownerId);
-            case REJECTED -> bookingRepository.findRejectedBookingsByOwner(ownerId);
+        List<BookingDto> bookings = switch (bookingState) {
+            case ALL -> bookingRepository.findByItemOwnerId(ownerId, start, id, limit);
+            case CURRENT -> bookingRepository.findCurrentBookingsByOwner(ownerId, now, start, id, limit);
+            case PAST -> bookingRepository.findPastBookingsByOwner(ownerId, now, start, id, limit);
+            case FUTURE -> bookingRepository.findFutureBookingsByOwner(ownerId, now, start, id, limit);
+            case WAITING -> bookingRepository.findWaitingBookingsByOwner(ownerId, start, id, limit);
+            case REJECTED -> bookingRepository.findRejectedBookingsByOwner(ownerId, start, id, limit);
         };
 
-        return bookings.stream()
-                .map(BookingMapper::toDto)
-                .collect(Collectors.toList());
+        return CursorPage.of(bookings, size, BookingServiceImpl::cursorOf, Function.identity());
+    }
+
+    @Override
+    public BookingSummaryDto getUserBookingSummary(Integer userId) {
+        userExistenceFilter.requireExists(userId);
+        return bookingRepository.summarizeByBooker(userId, LocalDateTime.now());
+    }
+
+    @Override
+    public BookingSummaryDto getOwnerBookingSummary(Integer ownerId) {
+        userExistenceFilter.requireExists(ownerId);
+        return bookingRepository.summarizeByOwner(ownerId, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOwnerBookings(Integer ownerId, String state, Consumer<BookingDto> action) {
+        userExistenceFilter.requireExists(ownerId);
+        BookingState bookingState = BookingState.from(state);
+        LocalDateTime now = LocalDateTime.now();
+
+        try (Stream<BookingDto> bookings = switch (bookingState) {
+            case ALL -> bookingRepository.streamByItemOwnerId(ownerId);
+            case CURRENT -> bookingRepository.streamCurrentBookingsByOwner(ownerId, now);
+            case PAST -> bookingRepository.streamPastBookingsByOwner(ownerId, now);
+            case FUTURE -> bookingRepository.streamFutureBookingsByOwner(ownerId, now);
+            case WAITING -> bookingRepository.streamBookingsByOwnerAndStatus(ownerId, BookingStatus.WAITING);
+            case REJECTED -> bookingRepository.streamBookingsByOwnerAndStatus(ownerId, BookingStatus.REJECTED);
+        }) {
+            bookings.forEach(action);
+        }
+    }
+
+    private RuntimeException decisionRefused(Integer bookingId, Integer ownerId) {
+        Booking booking = getBooking(bookingId);
+        if (!booking.getItem().getOwnerId().equals(ownerId)) {
+            return new ForbiddenException("Only the owner can approve or reject a booking");
+        }
+        return new ValidationException("Booking already approved or rejected");
+    }
+
+    private static ConflictException overlapConflict(Item item) {
+        return new ConflictException("Item with id = " + item.getId() + " is already booked for these dates");
+    }
+
+    private static Cursor cursorOf(BookingDto booking) {
+        return new Cursor(booking.getStart(), booking.getId());
     }
 
     private User getUser(Integer userId) {
@@ -26,4 +26,11 @@ public class BookingDto {
     private ItemDto item;
     private UserDto booker;
     private BookingStatus status;
+
+    public BookingDto(Integer id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      Integer itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                      Integer itemRequestId, Integer bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end, itemId, new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId),
+                new UserDto(bookerId, bookerName, bookerEmail), status);
+    }
 }
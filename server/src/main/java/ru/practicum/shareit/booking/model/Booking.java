@@ -11,7 +11,6 @@ import java.time.LocalDateTime;
 @Table(name = "bookings")
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Booking {
 
     @Id
@@ -35,4 +34,22 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BookingStatus status;
+
+    // Owner of the item, copied on insert so that owner listings are read from bookings_owner_start_idx.
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    private Integer ownerId;
+
+    public Booking(Integer id, LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.item = item;
+        this.booker = booker;
+        this.status = status;
+    }
+
+    @PrePersist
+    void copyItemOwner() {
+        ownerId = item.getOwnerId();
+    }
 }
@@ -10,8 +10,6 @@ public class CommentMapper {
         return new CommentDto(
                 comment.getId(),
                 comment.getText(),
-                comment.getItem(),
-                comment.getAuthor(),
                 comment.getAuthor().getName(),
                 comment.getCreated()
         );
@@ -25,4 +23,3 @@ public class CommentMapper {
         return comment;
     }
 }
-
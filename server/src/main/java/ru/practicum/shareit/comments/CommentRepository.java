@@ -1,12 +1,33 @@
 package ru.practicum.shareit.comments;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.comments.dto.CommentDto;
+import ru.practicum.shareit.comments.dto.ItemCommentCount;
 import ru.practicum.shareit.comments.model.Comment;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(Integer itemId);
 
-    List<Comment> findByItemIdIn(List<Integer> itemIds);
-}
\ No newline at end of file
+    // Comments of an item, newest first (keyset pages on created, id).
+    @Query("SELECT new ru.practicum.shareit.comments.dto.CommentDto(c.id, c.text, a.name, c.created) " +
+            "FROM Comment c JOIN c.author a " +
+            "WHERE c.item.id = :itemId AND c.created <= :cursorCreated " +
+            "AND (c.created < :cursorCreated OR (c.created = :cursorCreated AND c.id < :cursorId)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<CommentDto> findByItemId(Integer itemId, LocalDateTime cursorCreated, Integer cursorId, Limit limit);
+
+    // Newest comments of an item: a bounded probe of comments_item_created_idx.
+    @Query("SELECT new ru.practicum.shareit.comments.dto.CommentDto(c.id, c.text, a.name, c.created) " +
+            "FROM Comment c JOIN c.author a " +
+            "WHERE c.item.id = :itemId " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<CommentDto> findNewestByItemId(Integer itemId, Limit limit);
+
+    @Query("SELECT c.item.id AS itemId, COUNT(c) AS total FROM Comment c " +
+            "WHERE c.item.id IN :itemIds GROUP BY c.item.id")
+    List<ItemCommentCount> countByItemIds(List<Integer> itemIds);
+}
@@ -1,8 +1,6 @@
 package ru.practicum.shareit.comments.dto;
 
 import lombok.*;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
@@ -12,8 +10,6 @@ import java.time.LocalDateTime;
 public class CommentDto {
     private Integer id;
     private String text;
-    private Item item;
-    private User author;
     private String authorName;
     private LocalDateTime created;
 }
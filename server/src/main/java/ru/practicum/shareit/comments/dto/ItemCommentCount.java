@@ -0,0 +1,8 @@
+package ru.practicum.shareit.comments.dto;
+
+// Row of CommentRepository#countByItemIds: the number of comments on an item.
+public interface ItemCommentCount {
+    Integer getItemId();
+
+    Long getTotal();
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingState;
+
+/**
+ * Adds the booking state filter as a "state" tag to http.server.requests, so that
+ * /bookings/owner?state=PAST gets its own latency histogram instead of sharing one with every state.
+ */
+@Component
+public class StateTagObservationConvention extends DefaultServerRequestObservationConvention {
+    private static final String NONE = "none";
+    private static final String INVALID = "invalid";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of("state", state(context)));
+    }
+
+    private static String state(ServerRequestObservationContext context) {
+        String state = context.getCarrier().getParameter("state");
+        if (state == null) {
+            return NONE;
+        }
+        try {
+            return BookingState.from(state).name();
+        } catch (IllegalArgumentException e) {
+            return INVALID;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.util.regex.Pattern;
+
+@Configuration
+public class WebConfig {
+    private static final Pattern SINGLE_RESOURCE = Pattern.compile("/(items|users|requests)/\\d+");
+
+    // ETags for single-resource reads, so the gateway can revalidate its cached copy with If-None-Match once
+    // the copy is older than its TTL. The body is still rendered to compute the hash; a 304 saves the transfer
+    // and the gateway's parsing. Listings, search, streams and comment pages are neither cached by the gateway
+    // nor buffered here.
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter() {
+                    @Override
+                    protected boolean shouldNotFilter(HttpServletRequest request) {
+                        return !HttpMethod.GET.matches(request.getMethod())
+                                || !SINGLE_RESOURCE.matcher(request.getRequestURI()).matches();
+                    }
+                });
+        registration.addUrlPatterns("/items/*", "/users/*", "/requests/*");
+        return registration;
+    }
+}
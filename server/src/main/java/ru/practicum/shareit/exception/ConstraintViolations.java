@@ -0,0 +1,36 @@
+package ru.practicum.shareit.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+public class ConstraintViolations {
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final String EXCLUSION_CONSTRAINT = "exclusion constraint \"";
+
+    // True if the database rejected the statement because of the given constraint or unique index.
+    // Names are compared without schema and case, since H2 reports them as PUBLIC.UPPER_CASE.
+    public static boolean isViolationOf(DataIntegrityViolationException e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return sameName(violation.getConstraintName(), constraintName);
+            }
+            // Hibernate does not extract the name of a PostgreSQL exclusion constraint, only its message has it.
+            if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                String message = sqlException.getMessage();
+                int start = message.indexOf(EXCLUSION_CONSTRAINT);
+                int end = start < 0 ? -1 : message.indexOf('"', start + EXCLUSION_CONSTRAINT.length());
+                return end >= 0 && sameName(message.substring(start + EXCLUSION_CONSTRAINT.length(), end),
+                        constraintName);
+            }
+        }
+        return false;
+    }
+
+    private static boolean sameName(String violated, String constraintName) {
+        violated = violated.substring(violated.lastIndexOf('.') + 1);
+        return violated.toLowerCase(Locale.ROOT).equals(constraintName.toLowerCase(Locale.ROOT));
+    }
+}
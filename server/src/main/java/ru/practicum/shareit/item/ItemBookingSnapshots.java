@@ -0,0 +1,153 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.BookingSnapshot;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the last and next approved booking stored on items.
+ * An approval updates the snapshots of its item, and a scheduled roll recomputes items whose next booking
+ * has started. Between two rolls such items are read from the bookings table, so readers never see
+ * a started booking as the next one.
+ */
+@Slf4j
+@Component
+public class ItemBookingSnapshots {
+    private static final int ROLL_BATCH_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public ItemBookingSnapshots(ItemRepository itemRepository, BookingRepository bookingRepository,
+                                EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public record Snapshots(BookingSnapshot last, BookingSnapshot next) {
+    }
+
+    // Must be called in the transaction that approves the booking.
+    public void recordApproval(Booking booking, LocalDateTime now) {
+        recordApprovals(List.of(booking), now);
+    }
+
+    // Same as recordApproval for several bookings: each item is reloaded once, in id order.
+    public void recordApprovals(List<Booking> bookings, LocalDateTime now) {
+        Map<Integer, List<Booking>> byItem = bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), TreeMap::new, Collectors.toList()));
+        // The flush keeps changes made earlier in the transaction from being discarded by the refresh.
+        entityManager.flush();
+        byItem.values().forEach(itemBookings -> {
+            Item item = itemBookings.get(0).getItem();
+            // Reloaded under the row lock, so concurrent approvals of one item cannot overwrite each other's snapshot.
+            entityManager.refresh(item, LockModeType.PESSIMISTIC_WRITE);
+            itemBookings.forEach(booking -> apply(item, booking, now));
+        });
+    }
+
+    public Map<Integer, Snapshots> current(List<Item> items, LocalDateTime now) {
+        Map<Integer, Snapshots> snapshots = new HashMap<>();
+        List<Integer> staleIds = new ArrayList<>();
+        for (Item item : items) {
+            if (hasStartedNextBooking(item, now)) {
+                staleIds.add(item.getId());
+            } else {
+                snapshots.put(item.getId(), new Snapshots(item.getLastBooking(), item.getNextBooking()));
+            }
+        }
+        if (!staleIds.isEmpty()) {
+            snapshots.putAll(lookup(staleIds, now));
+        }
+        return snapshots;
+    }
+
+    // Recomputes the snapshots of managed items from the bookings table.
+    public void refresh(List<Item> items, LocalDateTime now) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Map<Integer, Snapshots> snapshots = lookup(items.stream().map(Item::getId).toList(), now);
+        items.forEach(item -> {
+            Snapshots current = snapshots.get(item.getId());
+            item.setLastBooking(current.last());
+            item.setNextBooking(current.next());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.booking-roll-interval:PT1M}")
+    public void rollStartedBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        int rolled = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                List<Item> items = itemRepository.findWithStartedNextBooking(now, Limit.of(ROLL_BATCH_SIZE));
+                refresh(items, now);
+                return items.size();
+            });
+            rolled += batch;
+        } while (batch == ROLL_BATCH_SIZE);
+        if (rolled > 0) {
+            log.debug("Rolled booking snapshots of {} items", rolled);
+        }
+    }
+
+    private Map<Integer, Snapshots> lookup(List<Integer> itemIds, LocalDateTime now) {
+        Map<Integer, Booking> last = bookingRepository.findLastBookingsForItems(itemIds, now).stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), Function.identity()));
+        Map<Integer, Booking> next = bookingRepository.findNextBookingsForItems(itemIds, now).stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), Function.identity()));
+        Map<Integer, Snapshots> snapshots = new HashMap<>();
+        itemIds.forEach(itemId -> snapshots.put(itemId, new Snapshots(
+                BookingMapper.toSnapshot(last.get(itemId)),
+                BookingMapper.toSnapshot(next.get(itemId)))));
+        return snapshots;
+    }
+
+    private static void apply(Item item, Booking booking, LocalDateTime now) {
+        BookingSnapshot approved = BookingMapper.toSnapshot(booking);
+        if (booking.getStart().isBefore(now)) {
+            if (item.getLastBooking() == null || isBefore(item.getLastBooking(), approved)) {
+                item.setLastBooking(approved);
+            }
+        } else if (booking.getStart().isAfter(now)) {
+            if (item.getNextBooking() == null || isBefore(approved, item.getNextBooking())) {
+                item.setNextBooking(approved);
+            }
+        }
+    }
+
+    private static boolean hasStartedNextBooking(Item item, LocalDateTime now) {
+        return item.getNextBooking() != null && !item.getNextBooking().getStart().isAfter(now);
+    }
+
+    // Same order as the window queries of BookingRepository: by start, ties broken by id.
+    private static boolean isBefore(BookingSnapshot a, BookingSnapshot b) {
+        int byStart = a.getStart().compareTo(b.getStart());
+        return byStart < 0 || byStart == 0 && a.getBookingId() < b.getBookingId();
+    }
+}
@@ -1,12 +1,16 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comments.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 import java.util.Map;
@@ -16,6 +20,9 @@ import java.util.Map;
 @RequestMapping("/items")
 @Validated
 public class ItemController {
+    // A batch is imported in one transaction, so its size bounds how long that transaction runs.
+    static final int MAX_BATCH_SIZE = 10_000;
+
     private final ItemService itemService;
 
     public ItemController(ItemService itemService) {
@@ -31,6 +38,16 @@ public class ItemController {
         return createdItem;
     }
 
+    @PostMapping("/batch")
+    public List<ItemDto> addItems(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                  List<@Valid ItemDto> itemDtos,
+                                  @RequestHeader("X-Sharer-User-Id") Integer ownerId) {
+        log.info("New request to add {} items for owner with id {}", itemDtos.size(), ownerId);
+        List<ItemDto> createdItems = itemService.addItems(itemDtos, ownerId);
+        log.info("{} items successfully created", createdItems.size());
+        return createdItems;
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@PathVariable Integer itemId, @RequestBody ItemDto itemDto,
                               @RequestHeader("X-Sharer-User-Id") Integer ownerId) {
@@ -41,11 +58,15 @@ public class ItemController {
     }
 
     @GetMapping
-    public Iterable<ItemWithBookingsDto> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") Integer ownerId) {
+    public ResponseEntity<List<ItemWithBookingsDto>> getItemsByOwner(@RequestParam(required = false) String cursor,
+                                                                     @RequestParam(defaultValue =
+                                                                             CursorPage.DEFAULT_SIZE) Integer size,
+                                                                     @RequestHeader("X-Sharer-User-Id")
+                                                                     Integer ownerId) {
         log.info("New request to get items for owner with id {}", ownerId);
-        List<ItemWithBookingsDto> items = itemService.getItemsByOwner(ownerId);
+        CursorPage<ItemWithBookingsDto> items = itemService.getItemsByOwner(ownerId, cursor, size);
         log.info("Items successfully displayed");
-        return items;
+        return items.toResponseEntity();
     }
 
     @GetMapping("/{itemId}")
@@ -59,9 +80,11 @@ public class ItemController {
 
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestParam String text,
+                                     @RequestParam(defaultValue = "0") Integer from,
+                                     @RequestParam(defaultValue = "20") Integer size,
                                      @RequestHeader("X-Sharer-User-Id") Integer ownerId) {
-        log.info("New request to search items with text {}", text);
-        List<ItemDto> items = itemService.searchItems(text, ownerId);
+        log.info("New request to search items with text {}, from={}, size={}", text, from, size);
+        List<ItemDto> items = itemService.searchItems(text, ownerId, from, size);
         log.info("Item successfully displayed");
         return items;
     }
@@ -76,4 +99,16 @@ public class ItemController {
         return comment;
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable Integer itemId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = CursorPage.DEFAULT_SIZE)
+                                                        Integer size,
+                                                        @RequestHeader("X-Sharer-User-Id") Integer userId) {
+        log.info("New request to get comments of item with id {} for user with id {}", itemId, userId);
+        CursorPage<CommentDto> comments = itemService.getComments(itemId, userId, cursor, size);
+        log.info("Comments successfully displayed");
+        return comments.toResponseEntity();
+    }
+
 }
@@ -1,7 +1,7 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.booking.dto.BookingShortDto;
-import ru.practicum.shareit.comments.model.Comment;
+import ru.practicum.shareit.comments.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.model.Item;
@@ -32,7 +32,8 @@ public class ItemMapper {
     }
 
     public static ItemWithBookingsDto toWithBookingsDto(Item item, BookingShortDto lastBooking,
-                                                        BookingShortDto nextBooking, List<Comment> comments) {
+                                                        BookingShortDto nextBooking, List<CommentDto> comments,
+                                                        Long commentCount) {
         return new ItemWithBookingsDto(
                 item.getId(),
                 item.getName(),
@@ -40,7 +41,8 @@ public class ItemMapper {
                 item.getAvailable(),
                 lastBooking,
                 nextBooking,
-                comments
+                comments,
+                commentCount
         );
     }
 }
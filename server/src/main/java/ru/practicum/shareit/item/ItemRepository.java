@@ -1,20 +1,51 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
-    List<Item> findByOwnerId(Integer ownerId);
+    List<Item> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Integer ownerId, Integer afterId, Limit limit);
 
+    // The text has to start a word of the name or description: "dri" finds "Drill", "ill" does not.
     @Query("SELECT i FROM Item i " +
             "WHERE i.available = true AND " +
-            "(upper(i.name) LIKE upper(concat('%', ?1, '%')) OR " +
-            "upper(i.description) LIKE upper(concat('%', ?1, '%')))")
-    List<Item> searchAvailableItems(String text);
+            "(upper(concat(' ', i.name)) LIKE upper(concat('% ', ?1, '%')) OR " +
+            "upper(concat(' ', i.description)) LIKE upper(concat('% ', ?1, '%'))) " +
+            "ORDER BY CASE WHEN upper(concat(' ', i.name)) LIKE upper(concat('% ', ?1, '%')) THEN 0 ELSE 1 END, i.id")
+    List<Item> searchAvailableItems(String text, Pageable pageable);
+
+    @Query(value = """
+            SELECT i.* FROM items i
+            WHERE i.is_available = TRUE
+              AND i.search_vector @@ to_tsquery('simple', :query)
+            ORDER BY ts_rank(i.search_vector, to_tsquery('simple', :query)) DESC, i.id
+            """, nativeQuery = true)
+    List<Item> searchAvailableItemsFullText(@Param("query") String query, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findByIdForUpdate(@Param("itemId") Integer itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.nextBooking.start <= :now ORDER BY i.nextBooking.start, i.id")
+    List<Item> findWithStartedNextBooking(@Param("now") LocalDateTime now, Limit limit);
+
+    // Keyset batches of available items for ItemSearchIndex: no count query and no managed entities,
+    // so building the index leaves the items cache region alone.
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, i.request.id) " +
+            "FROM Item i WHERE i.available = true AND i.id > :afterId ORDER BY i.id")
+    List<ItemDto> findAvailableDtosAfter(@Param("afterId") Integer afterId, Limit limit);
 
     List<Item> findByRequestId(Integer requestId);
 
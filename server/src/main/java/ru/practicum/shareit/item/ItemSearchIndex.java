@@ -0,0 +1,339 @@
+package ru.practicum.shareit.item;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over the name and description of available items.
+ * Used by {@link ItemServiceImpl#searchItems} when shareit.items.search-mode=index.
+ * The index is local to the server instance: it is built on startup and then kept up to date
+ * only by item writes that go through this instance.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int BUILD_BATCH_SIZE = 1000;
+    private static final String TOKEN_SEPARATOR = "[^\\p{L}\\p{N}]+";
+    private static final int MAX_TYPOS = 2;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    // Symmetric deletion index: every string obtained by deleting up to two characters of a term
+    // points back to the term, so typo candidates are found by lookups instead of a vocabulary scan.
+    private final Map<String, Set<String>> termsByDeletion = new HashMap<>();
+    private final Map<Integer, IndexedItem> items = new HashMap<>();
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.items.search-mode:like}") ItemSearchMode searchMode) {
+        this.itemRepository = itemRepository;
+        this.enabled = searchMode == ItemSearchMode.INDEX;
+    }
+
+    @PostConstruct
+    void build() {
+        if (!enabled) {
+            return;
+        }
+        int afterId = 0;
+        List<ItemDto> batch;
+        do {
+            batch = itemRepository.findAvailableDtosAfter(afterId, Limit.of(BUILD_BATCH_SIZE));
+            batch.forEach(this::put);
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BUILD_BATCH_SIZE);
+        log.info("Item search index built: {} items, {} terms", items.size(), postings.size());
+    }
+
+    // After commit, so that items of a rolled back write are never returned by search.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsSaved(ItemsSavedEvent event) {
+        event.items().forEach(this::put);
+    }
+
+    public void put(ItemDto item) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                String[] terms = Arrays.stream(tokenize(item.getName() + " " + item.getDescription()))
+                        .distinct()
+                        .sorted()
+                        .toArray(String[]::new);
+                for (String term : terms) {
+                    postings.computeIfAbsent(term, this::newTerm).add(item.getId());
+                }
+                items.put(item.getId(), new IndexedItem(copy(item), terms));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemDto> search(String text, int from, int size) {
+        String[] queryTerms = tokenize(text);
+        if (queryTerms.length == 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int[] matches = null;
+            for (String queryTerm : queryTerms) {
+                int[] candidates = matchingIds(queryTerm);
+                matches = matches == null ? candidates : intersect(matches, candidates);
+                if (matches.length == 0) {
+                    return List.of();
+                }
+            }
+            long[] ranked = rank(matches, queryTerms);
+            List<ItemDto> result = new ArrayList<>(Math.min(size, Math.max(ranked.length - from, 0)));
+            for (int i = from; i < ranked.length && result.size() < size; i++) {
+                result.add(copy(items.get((int) ranked[i]).item()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void remove(Integer itemId) {
+        IndexedItem previous = items.remove(itemId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Postings termPostings = postings.get(term);
+            termPostings.remove(itemId);
+            if (termPostings.size == 0) {
+                postings.remove(term);
+                for (String deletion : deletions(term, deletionDepth(term))) {
+                    Set<String> terms = termsByDeletion.get(deletion);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        termsByDeletion.remove(deletion);
+                    }
+                }
+            }
+        }
+    }
+
+    private Postings newTerm(String term) {
+        for (String deletion : deletions(term, deletionDepth(term))) {
+            termsByDeletion.computeIfAbsent(deletion, key -> new HashSet<>()).add(term);
+        }
+        return new Postings();
+    }
+
+    // Ids of items having a term that starts with the query term or is within the allowed number of typos.
+    // Two strings within distance d share a variant with at most d deletions from each, so only terms
+    // reached through the query's own deletion variants are checked with the full distance.
+    private int[] matchingIds(String queryTerm) {
+        IdBuffer ids = new IdBuffer();
+        for (Postings prefixed : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, true).values()) {
+            ids.add(prefixed.ids, prefixed.size);
+        }
+        int maxTypos = maxTypos(queryTerm.length());
+        if (maxTypos > 0) {
+            Set<String> checked = new HashSet<>();
+            for (String deletion : deletions(queryTerm, maxTypos)) {
+                for (String term : termsByDeletion.getOrDefault(deletion, Set.of())) {
+                    if (checked.add(term) && !term.startsWith(queryTerm)
+                            && withinDistance(queryTerm, term, maxTypos)) {
+                        Postings similar = postings.get(term);
+                        ids.add(similar.ids, similar.size);
+                    }
+                }
+            }
+        }
+        return ids.toSortedDistinct();
+    }
+
+    // Items containing more query terms verbatim come first, ties are broken by id.
+    // Score and id are packed into one long so that sorting needs no boxing.
+    private long[] rank(int[] ids, String[] queryTerms) {
+        long[] ranked = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            String[] terms = items.get(ids[i]).terms();
+            int exactMatches = 0;
+            for (String queryTerm : queryTerms) {
+                if (Arrays.binarySearch(terms, queryTerm) >= 0) {
+                    exactMatches++;
+                }
+            }
+            ranked[i] = ((long) (queryTerms.length - exactMatches) << 32) | ids[i];
+        }
+        Arrays.sort(ranked);
+        for (int i = 0; i < ranked.length; i++) {
+            ranked[i] = (int) ranked[i];
+        }
+        return ranked;
+    }
+
+    private static int maxTypos(int termLength) {
+        if (termLength >= 8) {
+            return MAX_TYPOS;
+        }
+        return termLength >= 4 ? 1 : 0;
+    }
+
+    // A term has to be reachable from the longest query that may still match it with typos.
+    private static int deletionDepth(String term) {
+        return maxTypos(term.length() + MAX_TYPOS);
+    }
+
+    // The string itself and every string made by deleting up to maxDeletions of its characters.
+    private static Set<String> deletions(String term, int maxDeletions) {
+        Set<String> result = new HashSet<>();
+        result.add(term);
+        Set<String> level = Set.of(term);
+        for (int depth = 0; depth < maxDeletions; depth++) {
+            Set<String> next = new HashSet<>();
+            for (String variant : level) {
+                for (int i = 0; i < variant.length(); i++) {
+                    next.add(variant.substring(0, i) + variant.substring(i + 1));
+                }
+            }
+            result.addAll(next);
+            level = next;
+        }
+        return result;
+    }
+
+    private static boolean withinDistance(String a, String b, int maxDistance) {
+        if (maxDistance == 0) {
+            return a.equals(b);
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxDistance;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[k++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    private static String[] tokenize(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split(TOKEN_SEPARATOR))
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static ItemDto copy(ItemDto item) {
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getRequestId());
+    }
+
+    private record IndexedItem(ItemDto item, String[] terms) {
+    }
+
+    // Ids gathered from several postings lists; sorted and deduplicated once at the end.
+    private static final class IdBuffer {
+        private int[] ids = new int[16];
+        private int size;
+
+        void add(int[] source, int length) {
+            if (size + length > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(ids.length * 2, size + length));
+            }
+            System.arraycopy(source, 0, ids, size, length);
+            size += length;
+        }
+
+        int[] toSortedDistinct() {
+            Arrays.sort(ids, 0, size);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || ids[i] != ids[distinct - 1]) {
+                    ids[distinct++] = ids[i];
+                }
+            }
+            return Arrays.copyOf(ids, distinct);
+        }
+    }
+
+    // Sorted item ids of one term, kept in a growable primitive array.
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item;
+
+/**
+ * How GET /items/search matches the text, set by shareit.items.search-mode. Every mode matches the
+ * beginning of words of the name or description of available items, so "dri" finds "Drill" and "ill" does not.
+ * The modes still differ in the following ways:
+ * <ul>
+ *     <li>{@link #LIKE} matches the whole text as one phrase, and only words that follow a space.
+ *     Items matching by name come first, then by id. Runs on any database.</li>
+ *     <li>{@link #FULL_TEXT} matches every word of the text anywhere, with words split at any non-alphanumeric
+ *     character, and ranks by ts_rank. PostgreSQL only.</li>
+ *     <li>{@link #INDEX} matches every word like FULL_TEXT, tolerates typos and uses {@link ItemSearchIndex}.</li>
+ * </ul>
+ */
+public enum ItemSearchMode {
+    LIKE,
+    FULL_TEXT,
+    INDEX
+}
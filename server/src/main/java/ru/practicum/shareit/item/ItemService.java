@@ -4,20 +4,25 @@ import jakarta.validation.Valid;
 import ru.practicum.shareit.comments.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 
 public interface ItemService {
     ItemDto addItem(@Valid ItemDto itemDto, Integer ownerId);
 
+    List<ItemDto> addItems(List<@Valid ItemDto> itemDtos, Integer ownerId);
+
     ItemDto updateItem(Integer itemId, ItemDto itemDto, Integer ownerId);
 
-    List<ItemWithBookingsDto> getItemsByOwner(Integer ownerId);
+    CursorPage<ItemWithBookingsDto> getItemsByOwner(Integer ownerId, String cursor, Integer size);
 
     ItemWithBookingsDto getItemById(Integer itemId, Integer ownerId);
 
-    List<ItemDto> searchItems(String text, Integer ownerId);
+    List<ItemDto> searchItems(String text, Integer ownerId, Integer from, Integer size);
 
     CommentDto addComment(Integer itemId, Integer userId, String text);
 
+    CursorPage<CommentDto> getComments(Integer itemId, Integer userId, String cursor, Integer size);
+
 }
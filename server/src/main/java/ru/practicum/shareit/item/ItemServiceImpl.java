@@ -1,13 +1,21 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.comments.CommentMapper;
 import ru.practicum.shareit.comments.CommentRepository;
 import ru.practicum.shareit.comments.dto.CommentDto;
+import ru.practicum.shareit.comments.dto.ItemCommentCount;
 import ru.practicum.shareit.comments.model.Comment;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -15,6 +23,9 @@ import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserMapper;
@@ -22,35 +33,62 @@ import ru.practicum.shareit.user.UserServiceImpl;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
 
 @Service
 public class ItemServiceImpl implements ItemService {
+    // Items persisted between two flushes of a bulk import; the JDBC batch size is hibernate.jdbc.batch_size.
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
     private final ItemRepository itemRepository;
     private final UserServiceImpl userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
-
+    private final ItemSearchMode searchMode;
+    private final ItemSearchIndex searchIndex;
+    private final EntityManager entityManager;
+    private final ItemBookingSnapshots itemBookingSnapshots;
+    private final OwnerItemsCache ownerItemsCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int embeddedComments;
 
     public ItemServiceImpl(ItemRepository itemRepository, UserServiceImpl userService,
                            BookingRepository bookingRepository, CommentRepository commentRepository,
-                           ItemRequestRepository itemRequestRepository) {
+                           ItemRequestRepository itemRequestRepository,
+                           @Value("${shareit.items.search-mode:like}") ItemSearchMode searchMode,
+                           ItemSearchIndex searchIndex, EntityManager entityManager,
+                           ItemBookingSnapshots itemBookingSnapshots, OwnerItemsCache ownerItemsCache,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${shareit.items.embedded-comments:10}") int embeddedComments) {
         this.itemRepository = itemRepository;
         this.userService = userService;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.itemRequestRepository = itemRequestRepository;
+        this.searchMode = searchMode;
+        this.searchIndex = searchIndex;
+        this.entityManager = entityManager;
+        this.itemBookingSnapshots = itemBookingSnapshots;
+        this.ownerItemsCache = ownerItemsCache;
+        this.eventPublisher = eventPublisher;
+        this.embeddedComments = embeddedComments;
     }
 
     @Override
     public ItemDto addItem(ItemDto itemDto, Integer ownerId) {
-        userService.getUserById(ownerId);
+        userService.checkUserExists(ownerId);
 
         ItemRequest request = null;
         if (itemDto.getRequestId() != null) {
@@ -60,88 +98,142 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item savedItem = itemRepository.save(ItemMapper.toItem(itemDto, ownerId, request));
-        return ItemMapper.toDto(savedItem);
+        ItemDto saved = ItemMapper.toDto(savedItem);
+        eventPublisher.publishEvent(new ItemsSavedEvent(List.of(saved)));
+        eventPublisher.publishEvent(new OwnerItemsChangedEvent(ownerId));
+        return saved;
     }
 
     @Override
+    @Transactional
+    public List<ItemDto> addItems(List<ItemDto> itemDtos, Integer ownerId) {
+        userService.checkUserExists(ownerId);
+
+        Set<Integer> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        requestIds.stream()
+                .filter(requestId -> !requests.containsKey(requestId))
+                .findFirst()
+                .ifPresent(requestId -> {
+                    throw new NotFoundException("Request with id = " + requestId + " not found");
+                });
+
+        // Imported items are not read back soon, so they are kept out of the second-level cache.
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        List<ItemDto> saved = new ArrayList<>(itemDtos.size());
+        for (int from = 0; from < itemDtos.size(); from += IMPORT_CHUNK_SIZE) {
+            List<Item> chunk = itemDtos.subList(from, Math.min(from + IMPORT_CHUNK_SIZE, itemDtos.size())).stream()
+                    .map(itemDto -> {
+                        Item item = ItemMapper.toItem(itemDto, ownerId, requests.get(itemDto.getRequestId()));
+                        item.setId(null);
+                        return item;
+                    })
+                    .toList();
+            itemRepository.saveAll(chunk);
+            entityManager.flush();
+            entityManager.clear();
+            chunk.forEach(item -> saved.add(ItemMapper.toDto(item)));
+        }
+        eventPublisher.publishEvent(new ItemsSavedEvent(saved));
+        eventPublisher.publishEvent(new OwnerItemsChangedEvent(ownerId));
+        return saved;
+    }
+
+    @Override
+    @Transactional
     public ItemDto updateItem(Integer itemId, ItemDto itemDto, Integer ownerId) {
-        Item item = checkId(itemId);
+        // Loaded under the row lock taken by ItemBookingSnapshots as well, so the state written to the cache
+        // on commit includes snapshots recorded concurrently.
+        Item item = itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new ValidationException("Item with id = " + itemId + " was not found"));
         if (!item.getOwnerId().equals(ownerId)) {
             throw new ForbiddenException("Item with id = " + itemId + " does not belong to user with id = " + ownerId);
         }
         update(item, itemDto);
-        return ItemMapper.toDto(itemRepository.save(item));
+        ItemDto updated = ItemMapper.toDto(item);
+        eventPublisher.publishEvent(new ItemsSavedEvent(List.of(updated)));
+        eventPublisher.publishEvent(new OwnerItemsChangedEvent(ownerId));
+        return updated;
     }
 
     @Override
-    public List<ItemWithBookingsDto> getItemsByOwner(Integer ownerId) {
-        userService.getUserById(ownerId);
-        List<Item> items = itemRepository.findByOwnerId(ownerId);
+    public CursorPage<ItemWithBookingsDto> getItemsByOwner(Integer ownerId, String cursor, Integer size) {
+        userService.checkUserExists(ownerId);
+        return ownerItemsCache.get(ownerId, cursor, size, () -> loadItemsByOwner(ownerId, cursor, size));
+    }
+
+    private CursorPage<ItemWithBookingsDto> loadItemsByOwner(Integer ownerId, String cursor, Integer size) {
+        List<Item> rows = itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId,
+                Cursor.ascending(cursor).getId(), CursorPage.limit(size));
+        CursorPage<Item> page = CursorPage.of(rows, size, item -> new Cursor(null, item.getId()), item -> item);
+        List<Item> items = page.getItems();
         if (items.isEmpty()) {
-            return List.of();
+            return new CursorPage<>(List.of(), null);
         }
 
         List<Integer> itemIds = items.stream().map(Item::getId).toList();
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> lastBookings = bookingRepository.findLastBookingsForItems(itemIds, now);
-        List<Booking> nextBookings = bookingRepository.findNextBookingsForItems(itemIds, now);
+        Map<Integer, ItemBookingSnapshots.Snapshots> bookings = itemBookingSnapshots.current(items,
+                LocalDateTime.now());
 
-        Map<Integer, Booking> lastMap = lastBookings.stream()
-                .collect(Collectors.toMap(b -> b.getItem().getId(), b -> b));
+        Map<Integer, ItemComments> commentsByItem = newestComments(itemIds);
 
-        Map<Integer, Booking> nextMap = nextBookings.stream()
-                .collect(Collectors.toMap(b -> b.getItem().getId(), b -> b));
+        return page.map(item -> {
+            ItemBookingSnapshots.Snapshots snapshots = bookings.get(item.getId());
+            BookingShortDto last = BookingMapper.toShortDto(snapshots.last());
+            BookingShortDto next = BookingMapper.toShortDto(snapshots.next());
 
-        List<Comment> comments = commentRepository.findByItemIdIn(itemIds);
-        Map<Integer, List<Comment>> commentsByItem = comments.stream()
-                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
-
-        return items.stream()
-                .map(item -> {
-                    BookingShortDto last = Optional.ofNullable(lastMap.get(item.getId()))
-                            .map(BookingMapper::toShortDto).orElse(null);
-
-                    BookingShortDto next = Optional.ofNullable(nextMap.get(item.getId()))
-                            .map(BookingMapper::toShortDto).orElse(null);
-
-                    return new ItemWithBookingsDto(
-                            item.getId(),
-                            item.getName(),
-                            item.getDescription(),
-                            item.getAvailable(),
-                            last,
-                            next,
-                            commentsByItem.getOrDefault(item.getId(), List.of())
-                    );
-                })
-                .toList();
+            return new ItemWithBookingsDto(
+                    item.getId(),
+                    item.getName(),
+                    item.getDescription(),
+                    item.getAvailable(),
+                    last,
+                    next,
+                    commentsByItem.get(item.getId()).newest(),
+                    commentsByItem.get(item.getId()).total()
+            );
+        });
     }
 
     @Override
     public ItemWithBookingsDto getItemById(Integer itemId, Integer ownerId) {
-        userService.getUserById(ownerId);
+        userService.checkUserExists(ownerId);
         Item item = checkId(itemId);
         BookingShortDto last = null;
         BookingShortDto next = null;
         if (item.getOwnerId().equals(ownerId)) {
-            last = BookingMapper.toShortDto(bookingRepository.findLastBooking(itemId, APPROVED,
-                    LocalDateTime.now()));
-            next = BookingMapper.toShortDto(bookingRepository.findNextBooking(itemId, LocalDateTime.now()));
+            ItemBookingSnapshots.Snapshots snapshots = itemBookingSnapshots.current(List.of(item),
+                    LocalDateTime.now()).get(itemId);
+            last = BookingMapper.toShortDto(snapshots.last());
+            next = BookingMapper.toShortDto(snapshots.next());
         }
+        ItemComments comments = newestComments(List.of(itemId)).get(itemId);
         return ItemMapper.toWithBookingsDto(item,
                 last,
                 next,
-                commentRepository.findByItemId(itemId));
+                comments.newest(),
+                comments.total());
     }
 
     @Override
-    public List<ItemDto> searchItems(String text, Integer ownerId) {
-        userService.getUserById(ownerId);
-        String lowerText = text.toLowerCase();
-        return itemRepository.searchAvailableItems(lowerText).stream()
-                .map(ItemMapper::toDto)
-                .toList();
+    public List<ItemDto> searchItems(String text, Integer ownerId, Integer from, Integer size) {
+        userService.checkUserExists(ownerId);
+        if (from < 0 || size < 1) {
+            throw new ValidationException("Parameter from should not be negative and size should be positive");
+        }
+        Pageable page = OffsetPageRequest.of(from, size);
+        return switch (searchMode) {
+            case LIKE -> toDtos(itemRepository.searchAvailableItems(text.trim().toLowerCase(Locale.ROOT), page));
+            case FULL_TEXT -> {
+                String query = toPrefixTsQuery(text);
+                yield query.isEmpty() ? List.of() : toDtos(itemRepository.searchAvailableItemsFullText(query, page));
+            }
+            case INDEX -> searchIndex.search(text, from, size);
+        };
     }
 
     @Override
@@ -159,7 +251,44 @@ public class ItemServiceImpl implements ItemService {
         Comment comment = CommentMapper.toComment(text, item, UserMapper.toUser(user));
         comment.setCreated(LocalDateTime.now());
 
-        return CommentMapper.toDto(commentRepository.save(comment));
+        CommentDto saved = CommentMapper.toDto(commentRepository.save(comment));
+        eventPublisher.publishEvent(new OwnerItemsChangedEvent(item.getOwnerId()));
+        return saved;
+    }
+
+    @Override
+    public CursorPage<CommentDto> getComments(Integer itemId, Integer userId, String cursor, Integer size) {
+        userService.checkUserExists(userId);
+        checkId(itemId);
+        Cursor after = Cursor.descending(cursor);
+        List<CommentDto> rows = commentRepository.findByItemId(itemId, after.getKey(), after.getId(),
+                CursorPage.limit(size));
+        return CursorPage.of(rows, size, comment -> new Cursor(comment.getCreated(), comment.getId()),
+                comment -> comment);
+    }
+
+    private record ItemComments(List<CommentDto> newest, Long total) {
+    }
+
+    // One bounded index probe per item, so the cost does not grow with the number of comments; only items
+    // with more comments than embedded are counted.
+    private Map<Integer, ItemComments> newestComments(List<Integer> itemIds) {
+        Map<Integer, List<CommentDto>> newest = new HashMap<>();
+        List<Integer> truncated = new ArrayList<>();
+        for (Integer itemId : itemIds) {
+            List<CommentDto> comments = commentRepository.findNewestByItemId(itemId, Limit.of(embeddedComments));
+            newest.put(itemId, comments);
+            if (comments.size() == embeddedComments) {
+                truncated.add(itemId);
+            }
+        }
+        Map<Integer, Long> totals = truncated.isEmpty() ? Map.of() : commentRepository.countByItemIds(truncated)
+                .stream()
+                .collect(Collectors.toMap(ItemCommentCount::getItemId, ItemCommentCount::getTotal));
+        Map<Integer, ItemComments> comments = new HashMap<>();
+        newest.forEach((itemId, dtos) -> comments.put(itemId,
+                new ItemComments(dtos, totals.getOrDefault(itemId, (long) dtos.size()))));
+        return comments;
     }
 
     private Item checkId(Integer itemId) {
@@ -167,6 +296,21 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new ValidationException("Item with id = " + itemId + " was not found"));
     }
 
+    // Every word of the search text has to match the beginning of a token: "dri" finds "Drill".
+    // Only letters and digits survive, so the result is always a valid tsquery.
+    private static String toPrefixTsQuery(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    private static List<ItemDto> toDtos(List<Item> items) {
+        return items.stream()
+                .map(ItemMapper::toDto)
+                .toList();
+    }
+
     private void update(Item item, ItemDto itemDto) {
         if (itemDto.getName() != null && !itemDto.getName().isBlank()) {
             item.setName(itemDto.getName());
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+// Published when items are created or updated, so that the search index takes them once they are committed.
+public record ItemsSavedEvent(List<ItemDto> items) {
+}
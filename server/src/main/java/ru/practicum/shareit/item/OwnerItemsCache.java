@@ -0,0 +1,148 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.comments.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.pagination.CursorPage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Assembled pages of {@link ItemService#getItemsByOwner}, so that polling owner dashboards are served from memory.
+ * Pages of an owner are dropped after a commit that publishes {@link OwnerItemsChangedEvent}, and they expire
+ * together with the first of them to expire: after the TTL, or when the next booking of one of its items starts,
+ * since that booking then becomes the last one.
+ * The cache is local to the server instance: the TTL bounds how long writes through other instances go unseen.
+ * Pages hold mutable DTOs, so the cache keeps its own copy and every read gets a fresh one.
+ */
+@Component
+public class OwnerItemsCache implements MeterBinder {
+    // All cached pages of an owner under one key, so that a change drops them with a single removal.
+    // The per-owner maps are copied on write and never changed afterwards.
+    private final Cache<Integer, Map<PageKey, Entry>> cache;
+    // Hits and misses are counted per page, not per owner.
+    private final StatsCounter stats = new ConcurrentStatsCounter();
+    // Bumped by every invalidation; a page loaded while it changed may be stale and is not cached.
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Duration ttl;
+
+    public OwnerItemsCache(@Value("${shareit.items.owner-cache.max-size:10000}") long maxSize,
+                           @Value("${shareit.items.owner-cache.ttl:5m}") Duration ttl) {
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher((Integer ownerId, Map<PageKey, Entry> pages) -> pages.size())
+                .expireAfter(new FirstPageExpiry())
+                .recordStats(() -> stats)
+                .build();
+    }
+
+    public CursorPage<ItemWithBookingsDto> get(Integer ownerId, String cursor, Integer size,
+                                               Supplier<CursorPage<ItemWithBookingsDto>> loader) {
+        PageKey key = new PageKey(cursor, size);
+        // The map view does not record stats; they are recorded for the page below.
+        Map<PageKey, Entry> pages = cache.asMap().get(ownerId);
+        Entry cached = pages == null ? null : pages.get(key);
+        if (cached != null) {
+            stats.recordHits(1);
+            return cached.page().map(OwnerItemsCache::copy);
+        }
+        stats.recordMisses(1);
+        long version = invalidations.get();
+        CursorPage<ItemWithBookingsDto> page = loader.get();
+        Entry entry = new Entry(page.map(OwnerItemsCache::copy), expiresAt(page));
+        // Checked under the owner's entry lock, which the invalidation takes as well.
+        cache.asMap().compute(ownerId, (id, current) -> {
+            if (invalidations.get() != version) {
+                return current;
+            }
+            Map<PageKey, Entry> updated = current == null ? new HashMap<>() : new HashMap<>(current);
+            updated.put(key, entry);
+            return updated;
+        });
+        return page;
+    }
+
+    // Runs after the commit, so that a concurrent read cannot cache the state from before it.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOwnerItemsChanged(OwnerItemsChangedEvent event) {
+        invalidations.incrementAndGet();
+        cache.invalidate(event.ownerId());
+    }
+
+    // Exposes cache.gets (hit/miss per page), cache.evictions and cache.size (both per owner).
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "owner-items");
+    }
+
+    private long expiresAt(CursorPage<ItemWithBookingsDto> page) {
+        Duration lifetime = page.getItems().stream()
+                .map(ItemWithBookingsDto::getNextBooking)
+                .filter(Objects::nonNull)
+                .map(booking -> Duration.between(LocalDateTime.now(), booking.getStart()))
+                .filter(untilStart -> untilStart.compareTo(ttl) < 0)
+                .min(Duration::compareTo)
+                .orElse(ttl);
+        return System.nanoTime() + Math.max(0, lifetime.toNanos());
+    }
+
+    private static ItemWithBookingsDto copy(ItemWithBookingsDto item) {
+        return new ItemWithBookingsDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                copy(item.getLastBooking()), copy(item.getNextBooking()),
+                item.getComments().stream().map(OwnerItemsCache::copy).toList(), item.getCommentCount());
+    }
+
+    private static BookingShortDto copy(BookingShortDto booking) {
+        return booking == null ? null
+                : new BookingShortDto(booking.getId(), booking.getBookerId(), booking.getStart(), booking.getEnd());
+    }
+
+    private static CommentDto copy(CommentDto comment) {
+        return new CommentDto(comment.getId(), comment.getText(), comment.getAuthorName(), comment.getCreated());
+    }
+
+    private record PageKey(String cursor, Integer size) {
+    }
+
+    private record Entry(CursorPage<ItemWithBookingsDto> page, long expiresAtNanos) {
+    }
+
+    // Times are those of the default ticker, System.nanoTime().
+    private static final class FirstPageExpiry implements Expiry<Integer, Map<PageKey, Entry>> {
+        @Override
+        public long expireAfterCreate(Integer ownerId, Map<PageKey, Entry> pages, long currentTime) {
+            long expiresAt = pages.values().stream().mapToLong(Entry::expiresAtNanos).min().orElse(currentTime);
+            return Math.max(0, expiresAt - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(Integer ownerId, Map<PageKey, Entry> pages, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(ownerId, pages, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Integer ownerId, Map<PageKey, Entry> pages, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package ru.practicum.shareit.item;
+
+// Published when an item of the owner, or a comment or an approved booking of one, changes.
+public record OwnerItemsChangedEvent(Integer ownerId) {
+}
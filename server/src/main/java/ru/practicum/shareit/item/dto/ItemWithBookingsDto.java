@@ -4,7 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
-import ru.practicum.shareit.comments.model.Comment;
+import ru.practicum.shareit.comments.dto.CommentDto;
 
 import java.util.List;
 
@@ -18,5 +18,7 @@ public class ItemWithBookingsDto {
     private Boolean available;
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
-    private List<Comment> comments;
+    // Newest comments only; the full thread is paged by GET /items/{itemId}/comments.
+    private List<CommentDto> comments;
+    private Long commentCount;
 }
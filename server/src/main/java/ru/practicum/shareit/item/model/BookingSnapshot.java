@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Copy of the booking fields shown with an item, stored on the item row.
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingSnapshot {
+    private Integer bookingId;
+    private Integer bookerId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -2,16 +2,25 @@ package ru.practicum.shareit.item.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import ru.practicum.shareit.config.HibernateCacheConfig;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ITEMS_REGION)
 @Table(name = "items")
+// Updates write only the changed columns, so an edit of the item never rewrites its booking snapshots.
+@DynamicUpdate
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class Item {
+    // A pooled sequence instead of IDENTITY lets Hibernate batch inserts; see ItemService#addItems.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Integer id;
 
     @Column(nullable = false)
@@ -30,4 +39,33 @@ public class Item {
     @JoinColumn(name = "request_id")
     private ItemRequest request;
 
+    // Last and next approved booking, kept up to date by ItemBookingSnapshots so that item reads
+    // need no booking lookups.
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "bookingId", column = @Column(name = "last_booking_id")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "last_booker_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "last_booking_start")),
+            @AttributeOverride(name = "end", column = @Column(name = "last_booking_end"))
+    })
+    private BookingSnapshot lastBooking;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "bookingId", column = @Column(name = "next_booking_id")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "next_booker_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "next_booking_start")),
+            @AttributeOverride(name = "end", column = @Column(name = "next_booking_end"))
+    })
+    private BookingSnapshot nextBooking;
+
+    public Item(Integer id, String name, String description, Integer ownerId, Boolean available,
+                ItemRequest request) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.ownerId = ownerId;
+        this.available = available;
+        this.request = request;
+    }
 }
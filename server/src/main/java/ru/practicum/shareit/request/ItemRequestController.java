@@ -3,8 +3,10 @@ package ru.practicum.shareit.request;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 
@@ -36,11 +38,14 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestResponseDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") Integer userId) {
+    public ResponseEntity<List<ItemRequestResponseDto>> getAllRequests(
+            @RequestHeader("X-Sharer-User-Id") Integer userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPage.DEFAULT_SIZE) Integer size) {
         log.info("New request to get all item requests except user {}", userId);
-        List<ItemRequestResponseDto> requests = service.getAllRequests(userId);
-        log.info("Returned {} item requests (excluding user {})", requests.size(), userId);
-        return requests;
+        CursorPage<ItemRequestResponseDto> requests = service.getAllRequests(userId, cursor, size);
+        log.info("Returned {} item requests (excluding user {})", requests.getItems().size(), userId);
+        return requests.toResponseEntity();
     }
 
     @GetMapping("/{requestId}")
@@ -1,15 +1,22 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
     List<ItemRequest> findByRequestorIdOrderByCreatedDesc(Integer userId);
 
-    @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id <> :userId ORDER BY r.created DESC")
-    List<ItemRequest> findAllExcludingUser(@Param("userId") Integer userId);
+    @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id <> :userId AND r.created <= :cursorCreated " +
+            "AND (r.created < :cursorCreated OR (r.created = :cursorCreated AND r.id < :cursorId)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findAllExcludingUser(@Param("userId") Integer userId,
+                                           @Param("cursorCreated") LocalDateTime cursorCreated,
+                                           @Param("cursorId") Integer cursorId,
+                                           Limit limit);
 }
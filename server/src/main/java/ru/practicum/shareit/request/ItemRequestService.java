@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 
@@ -10,7 +11,7 @@ public interface ItemRequestService {
 
     List<ItemRequestResponseDto> getRequestsByUserId(Integer userId);
 
-    List<ItemRequestResponseDto> getAllRequests(Integer userId);
+    CursorPage<ItemRequestResponseDto> getAllRequests(Integer userId, String cursor, Integer size);
 
     ItemRequestResponseDto getRequestById(Integer requestId);
 }
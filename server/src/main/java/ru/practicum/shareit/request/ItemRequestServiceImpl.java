@@ -5,6 +5,8 @@ import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -36,16 +38,20 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestResponseDto> getRequestsByUserId(Integer userId) {
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
         List<ItemRequest> requests = requestRepository.findByRequestorIdOrderByCreatedDesc(userId);
         return toResponseDtoList(requests);
     }
 
     @Override
-    public List<ItemRequestResponseDto> getAllRequests(Integer userId) {
-        userService.getUserById(userId);
-        List<ItemRequest> requests = requestRepository.findAllExcludingUser(userId);
-        return toResponseDtoList(requests);
+    public CursorPage<ItemRequestResponseDto> getAllRequests(Integer userId, String cursor, Integer size) {
+        userService.checkUserExists(userId);
+        Cursor after = Cursor.descending(cursor);
+        List<ItemRequest> rows = requestRepository.findAllExcludingUser(userId, after.getKey(), after.getId(),
+                CursorPage.limit(size));
+        CursorPage<ItemRequest> page = CursorPage.of(rows, size,
+                request -> new Cursor(request.getCreated(), request.getId()), request -> request);
+        return new CursorPage<>(toResponseDtoList(page.getItems()), page.getNextCursor());
     }
 
     @Override
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.user;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -33,11 +35,13 @@ public class UserController {
     }
 
     @GetMapping
-    public List<UserDto> getAllUsers() {
+    public ResponseEntity<List<UserDto>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = CursorPage.DEFAULT_SIZE)
+                                                     Integer size) {
         log.info("Display a list of all users");
-        List<UserDto> users = userService.getAllUsers();
+        CursorPage<UserDto> users = userService.getAllUsers(cursor, size);
         log.info("The list successfully displayed");
-        return users;
+        return users.toResponseEntity();
     }
 
     @GetMapping("/{id}")
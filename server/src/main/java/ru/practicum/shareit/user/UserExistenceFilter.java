@@ -0,0 +1,170 @@
+package ru.practicum.shareit.user;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ids of existing users as a bit set, so that checking the X-Sharer-User-Id header of a request needs no query.
+ * Built on startup and updated by users created and deleted through this instance. A set bit is trusted,
+ * an unset one is checked against the database, so users created through another instance are still found.
+ * A user deleted through another instance passes the check here until the next rebuild, at most
+ * shareit.users.existence-filter.rebuild-interval later; paths that need the user row load it anyway.
+ */
+@Slf4j
+@Component
+public class UserExistenceFilter {
+    private static final int BUILD_BATCH_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private BitSet ids = new BitSet();
+    // The set being rebuilt, if any, so that users deleted meanwhile are cleared in it too.
+    private BitSet rebuilding;
+    // Counts deletions, so that ids read from the database before a deletion committed are not set afterwards.
+    private long removals;
+
+    public UserExistenceFilter(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    void build() {
+        rebuild();
+        log.info("User existence filter built: {} users", cardinality());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.users.existence-filter.rebuild-interval:PT10M}",
+            initialDelayString = "${shareit.users.existence-filter.rebuild-interval:PT10M}")
+    public void rebuild() {
+        BitSet loaded = new BitSet();
+        withWriteLock(() -> rebuilding = loaded);
+        try {
+            int afterId = 0;
+            while (true) {
+                long seenRemovals = removals();
+                List<Integer> batch = userRepository.findIdsAfter(afterId, Limit.of(BUILD_BATCH_SIZE));
+                if (!setIfNotRemovedSince(seenRemovals, batch, loaded)) {
+                    continue;
+                }
+                if (batch.size() < BUILD_BATCH_SIZE) {
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1);
+            }
+            withWriteLock(() -> ids = loaded);
+        } finally {
+            withWriteLock(() -> rebuilding = null);
+        }
+    }
+
+    public void requireExists(Integer userId) {
+        if (contains(userId)) {
+            return;
+        }
+        long seenRemovals = removals();
+        if (userRepository.findById(userId).isEmpty()) {
+            throw new NotFoundException("User with id = " + userId + " was not found");
+        }
+        afterCommit(() -> setIfNotRemovedSince(seenRemovals, List.of(userId), null));
+    }
+
+    // Within a transaction the id is added on commit, so a rolled back user never passes the check.
+    public void add(Integer userId) {
+        afterCommit(() -> withWriteLock(() -> ids.set(userId)));
+    }
+
+    // Within a transaction the id is cleared on commit: cleared earlier, a concurrent check could still
+    // read the row and set it again.
+    public void remove(Integer userId) {
+        if (userId == null || userId < 0) {
+            return;
+        }
+        afterCommit(() -> withWriteLock(() -> {
+            ids.clear(userId);
+            if (rebuilding != null) {
+                rebuilding.clear(userId);
+            }
+            removals++;
+        }));
+    }
+
+    private boolean contains(Integer userId) {
+        if (userId == null || userId < 0) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return ids.get(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int cardinality() {
+        lock.readLock().lock();
+        try {
+            return ids.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long removals() {
+        lock.readLock().lock();
+        try {
+            return removals;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Sets the ids, read from the database, unless a user was deleted since; the caller then reads them again
+    // or, for a single check, leaves the bit unset.
+    private boolean setIfNotRemovedSince(long seenRemovals, List<Integer> userIds, BitSet target) {
+        lock.writeLock().lock();
+        try {
+            if (removals != seenRemovals) {
+                return false;
+            }
+            BitSet bits = target == null ? ids : target;
+            userIds.forEach(bits::set);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
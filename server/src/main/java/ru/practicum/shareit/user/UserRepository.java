@@ -1,7 +1,20 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 public interface UserRepository extends JpaRepository<User, Integer> {
-}
\ No newline at end of file
+    List<User> findByIdGreaterThanOrderByIdAsc(Integer afterId, Limit limit);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Integer> findIdsAfter(@Param("afterId") Integer afterId, Limit limit);
+
+    // email_lower is the generated column users_email_lower_uq is built on, on H2 as well as on PostgreSQL.
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM users WHERE email_lower = :email)", nativeQuery = true)
+    boolean existsByNormalizedEmail(@Param("email") String normalizedEmail);
+}
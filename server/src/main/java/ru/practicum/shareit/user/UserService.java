@@ -1,17 +1,19 @@
 package ru.practicum.shareit.user;
 
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 
-import java.util.List;
-
 public interface UserService {
     UserDto createUser(UserDto userDto);
 
     UserDto updateUser(Integer id, UserDto userDto);
 
-    List<UserDto> getAllUsers();
+    CursorPage<UserDto> getAllUsers(String cursor, Integer size);
 
     UserDto getUserById(Integer id);
 
+    // Throws NotFoundException for an unknown user without loading the row of a known one.
+    void checkUserExists(Integer id);
+
     void deleteUser(Integer id);
 }
@@ -1,25 +1,34 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ConstraintViolations;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final String EMAIL_CONSTRAINT = "users_email_lower_uq";
 
     private final UserRepository userRepository;
+    private final UserExistenceFilter userExistenceFilter;
 
     @Override
     public UserDto createUser(UserDto  userDto) {
-        checkEmail(userDto);
         User user = UserMapper.toUser(userDto);
-        User saved = userRepository.save(user);
+        user.setEmail(trimEmail(user.getEmail()));
+        checkEmail(user.getEmail());
+        User saved = saveUnique(user);
+        userExistenceFilter.add(saved.getId());
         return UserMapper.toDto(saved);
     }
 
@@ -27,22 +36,25 @@ public class UserServiceImpl implements UserService {
     public UserDto updateUser(Integer id, UserDto userDto) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User with id = " + id + " was not found"));
-        if (userDto.getEmail() != null && !userDto.getEmail().equals(user.getEmail())) {
-            checkEmail(userDto);
-            user.setEmail(userDto.getEmail());
+        String email = trimEmail(userDto.getEmail());
+        if (email != null && !email.equals(user.getEmail())) {
+            if (!email.equalsIgnoreCase(user.getEmail())) {
+                checkEmail(email);
+            }
+            user.setEmail(email);
         }
         if (userDto.getName() != null && !userDto.getName().isBlank()) {
             user.setName(userDto.getName());
         }
 
-        return UserMapper.toDto(userRepository.save(user));
+        return UserMapper.toDto(saveUnique(user));
     }
 
     @Override
-    public List<UserDto> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(UserMapper::toDto)
-                .toList();
+    public CursorPage<UserDto> getAllUsers(String cursor, Integer size) {
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(Cursor.ascending(cursor).getId(),
+                CursorPage.limit(size));
+        return CursorPage.of(users, size, user -> new Cursor(null, user.getId()), UserMapper::toDto);
     }
 
     @Override
@@ -52,16 +64,41 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toDto(user);
     }
 
+    @Override
+    public void checkUserExists(Integer id) {
+        userExistenceFilter.requireExists(id);
+    }
+
     @Override
     public void deleteUser(Integer id) {
         userRepository.deleteById(id);
+        userExistenceFilter.remove(id);
+    }
+
+    private void checkEmail(String email) {
+        if (email != null && userRepository.existsByNormalizedEmail(email.toLowerCase(Locale.ROOT))) {
+            throw new ConflictException("Email already in use: " + email);
+        }
     }
 
-    private void checkEmail(UserDto user) {
-        boolean exists = userRepository.findAll().stream()
-                .anyMatch(u -> u.getEmail().equals(user.getEmail()));
-        if (exists) {
-            throw new ConflictException("Email already in use: " + user.getEmail());
+    /**
+     * The lookup above is only a fast path: two concurrent requests can both pass it,
+     * so the unique index on users.email is what finally decides and is reported as a conflict.
+     * Any other integrity error is not about the email and is rethrown as is.
+     */
+    private User saveUnique(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, EMAIL_CONSTRAINT)) {
+                throw new ConflictException("Email already in use: " + user.getEmail());
+            }
+            throw e;
         }
     }
+
+    // Emails are stored trimmed, so that users_email_lower_uq and the lookup above compare the same values.
+    private static String trimEmail(String email) {
+        return email == null ? null : email.trim();
+    }
 }
@@ -1,13 +1,8 @@
-DROP TABLE comments;
-DROP TABLE bookings;
-DROP TABLE items;
-DROP TABLE requests;
-DROP TABLE users;
-
 CREATE TABLE IF NOT EXISTS users (
                                      id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
                                      name VARCHAR(255) NOT NULL,
-                                     email VARCHAR(512) NOT NULL UNIQUE
+                                     email VARCHAR(512) NOT NULL,
+                                     CONSTRAINT users_email_key UNIQUE (email)
 );
 
 CREATE TABLE IF NOT EXISTS requests (
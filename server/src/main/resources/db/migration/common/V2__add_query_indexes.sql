@@ -0,0 +1,16 @@
+-- Bookings of a booker, newest first (keyset pages on start_date, id).
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+
+-- Bookings of an item by status and start: last/next booking, overlap checks, owner bookings via items.
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests (requestor_id, created DESC);
+
+-- Requests of all users, newest first (keyset pages on created, id).
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created DESC, id DESC);
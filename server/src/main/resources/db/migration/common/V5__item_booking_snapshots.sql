@@ -0,0 +1,38 @@
+-- Last and next approved booking of each item, maintained by ItemBookingSnapshots.
+ALTER TABLE items ADD COLUMN last_booking_id BIGINT;
+ALTER TABLE items ADD COLUMN last_booker_id BIGINT;
+ALTER TABLE items ADD COLUMN last_booking_start TIMESTAMP WITHOUT TIME ZONE;
+ALTER TABLE items ADD COLUMN last_booking_end TIMESTAMP WITHOUT TIME ZONE;
+ALTER TABLE items ADD COLUMN next_booking_id BIGINT;
+ALTER TABLE items ADD COLUMN next_booker_id BIGINT;
+ALTER TABLE items ADD COLUMN next_booking_start TIMESTAMP WITHOUT TIME ZONE;
+ALTER TABLE items ADD COLUMN next_booking_end TIMESTAMP WITHOUT TIME ZONE;
+
+-- Items whose next booking has started and has to be rolled into the last one.
+CREATE INDEX IF NOT EXISTS items_next_booking_start_idx ON items (next_booking_start);
+
+UPDATE items SET last_booking_id = (
+    SELECT b.id FROM bookings b
+    WHERE b.item_id = items.id AND b.status = 'APPROVED' AND b.start_date < LOCALTIMESTAMP
+    ORDER BY b.start_date DESC, b.id DESC
+    LIMIT 1
+);
+
+UPDATE items SET next_booking_id = (
+    SELECT b.id FROM bookings b
+    WHERE b.item_id = items.id AND b.status = 'APPROVED' AND b.start_date > LOCALTIMESTAMP
+    ORDER BY b.start_date ASC, b.id ASC
+    LIMIT 1
+);
+
+UPDATE items SET
+    last_booker_id = (SELECT b.booker_id FROM bookings b WHERE b.id = items.last_booking_id),
+    last_booking_start = (SELECT b.start_date FROM bookings b WHERE b.id = items.last_booking_id),
+    last_booking_end = (SELECT b.end_date FROM bookings b WHERE b.id = items.last_booking_id)
+WHERE last_booking_id IS NOT NULL;
+
+UPDATE items SET
+    next_booker_id = (SELECT b.booker_id FROM bookings b WHERE b.id = items.next_booking_id),
+    next_booking_start = (SELECT b.start_date FROM bookings b WHERE b.id = items.next_booking_id),
+    next_booking_end = (SELECT b.end_date FROM bookings b WHERE b.id = items.next_booking_id)
+WHERE next_booking_id IS NOT NULL;
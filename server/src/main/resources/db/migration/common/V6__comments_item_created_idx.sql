@@ -0,0 +1,4 @@
+-- Comments of an item, newest first: embedded comments of item responses and keyset pages of GET /items/{id}/comments.
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created DESC, id DESC);
+
+DROP INDEX IF EXISTS comments_item_idx;
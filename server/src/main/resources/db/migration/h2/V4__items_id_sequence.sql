@@ -0,0 +1,2 @@
+-- Item ids come from a pooled sequence (allocationSize = 50 on Item) so that item inserts can be batched.
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,6 @@
+-- H2 cannot index LOWER(email), so the lower-cased email is a generated column here, as on PostgreSQL (V8).
+-- users_email_lower_uq then is the only unique index on emails.
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_email_key;
+
+ALTER TABLE users ADD COLUMN email_lower VARCHAR(512) GENERATED ALWAYS AS (LOWER(email));
+CREATE UNIQUE INDEX users_email_lower_uq ON users (email_lower);
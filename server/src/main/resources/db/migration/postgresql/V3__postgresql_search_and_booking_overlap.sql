@@ -0,0 +1,53 @@
+-- Emails that differ only in case cannot be merged automatically, since other tables reference both users.
+-- They are reported instead of letting the index creation fail on the first one.
+DO $$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    SELECT string_agg(email, ', ') INTO duplicates
+    FROM (SELECT LOWER(email) AS email FROM users GROUP BY LOWER(email) HAVING COUNT(*) > 1 LIMIT 20) d;
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'Users with emails differing only in case must be merged or renamed first: %', duplicates;
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_lower_uq ON users (LOWER(email));
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS items_search_vector_idx ON items USING GIN (search_vector) WHERE is_available;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS period tsrange
+    GENERATED ALWAYS AS (tsrange(start_date, end_date, '[)')) STORED;
+
+-- Overlaps that the constraint below would forbid may already exist. Two approved bookings of the same
+-- time are a real double booking that somebody has to resolve, so they are reported and stop the migration.
+DO $$
+DECLARE
+    conflicts TEXT;
+BEGIN
+    SELECT string_agg(first_id || '/' || second_id, ', ') INTO conflicts
+    FROM (SELECT a.id AS first_id, b.id AS second_id
+          FROM bookings a
+          JOIN bookings b ON b.item_id = a.item_id AND b.id > a.id AND b.period && a.period
+          WHERE a.status = 'APPROVED' AND b.status = 'APPROVED'
+          LIMIT 20) pairs;
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Approved bookings overlap and must be resolved first: %', conflicts;
+    END IF;
+END $$;
+
+-- A waiting booking that overlaps an approved one or an earlier waiting one could never have been approved
+-- without a double booking, so it is rejected, as the owner would have had to do.
+UPDATE bookings w SET status = 'REJECTED'
+WHERE w.status = 'WAITING'
+  AND EXISTS (SELECT 1 FROM bookings o
+              WHERE o.item_id = w.item_id AND o.id <> w.id AND o.period && w.period
+                AND (o.status = 'APPROVED' OR (o.status = 'WAITING' AND o.id < w.id)));
+
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS bookings_no_overlap;
+ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap
+    EXCLUDE USING gist (item_id WITH =, period WITH &&) WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,4 @@
+-- Item ids come from a pooled sequence (allocationSize = 50 on Item) so that item inserts can be batched.
+-- Hibernate hands out the 50 ids up to each value it reads, so the first value has to leave room for them.
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM items), false);
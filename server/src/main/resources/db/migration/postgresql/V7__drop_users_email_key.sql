@@ -0,0 +1,2 @@
+-- users_email_lower_uq (V3) already rejects exact duplicates, so it stays the only unique index on emails.
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_email_key;
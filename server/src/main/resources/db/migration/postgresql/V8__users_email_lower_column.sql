@@ -0,0 +1,7 @@
+-- The lower-cased email becomes a column, as it has to be on H2 (V7), so that UserRepository.existsByNormalizedEmail
+-- compares the very column users_email_lower_uq is built on, whichever database runs it.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_lower VARCHAR(512) GENERATED ALWAYS AS (LOWER(email)) STORED;
+
+CREATE UNIQUE INDEX users_email_lower_column_uq ON users (email_lower);
+DROP INDEX users_email_lower_uq;
+ALTER INDEX users_email_lower_column_uq RENAME TO users_email_lower_uq;
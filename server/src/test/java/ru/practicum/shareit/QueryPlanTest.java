@@ -0,0 +1,205 @@
+package ru.practicum.shareit;
+
+import jakarta.transaction.Transactional;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.comments.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Checks that the SQL Hibernate generates for the hot repository methods is answered from an index
+// on a seeded dataset.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.QueryPlanTest$CapturedStatements")
+@Transactional
+class QueryPlanTest {
+    private static final int USERS = 100;
+    private static final int ITEMS = 300;
+    private static final int BOOKINGS = 2000;
+    private static final int FIRST_ID = 1_000_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void seed() {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{FIRST_ID + i, "User " + i, "user" + i + "@plan.test"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+
+        List<Object[]> requests = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            requests.add(new Object[]{FIRST_ID + i, "Request " + i, FIRST_ID + i % USERS,
+                    Timestamp.valueOf(BASE.minusHours(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)",
+                requests);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{FIRST_ID + i, "Item " + i, "Description " + i, true, FIRST_ID + i % USERS,
+                    i % 3 == 0 ? FIRST_ID + i % USERS : null});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", items);
+
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = BASE.minusDays(BOOKINGS / 2).plusDays(i);
+            bookings.add(new Object[]{FIRST_ID + i, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)),
+                    FIRST_ID + i % ITEMS, FIRST_ID + (i * 7) % USERS, i % 4 == 0 ? "WAITING" : "APPROVED",
+                    FIRST_ID + i % ITEMS % USERS});
+            comments.add(new Object[]{FIRST_ID + i, "Comment " + i, FIRST_ID + i % ITEMS,
+                    FIRST_ID + (i * 7) % USERS, Timestamp.valueOf(start)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, " +
+                "owner_id) VALUES (?, ?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, text, item_id, author_id, created) " +
+                "VALUES (?, ?, ?, ?, ?)", comments);
+    }
+
+    @Test
+    void hotQueriesDoNotScanWholeTables() {
+        int user = FIRST_ID + 7;
+        List<Integer> twoIds = List.of(FIRST_ID, FIRST_ID + 1);
+        LocalDateTime now = BASE;
+        // Deep into the request history, the way a client paging with a cursor would get there.
+        LocalDateTime requestCursor = BASE.minusDays(3).minusHours(18);
+        Limit page = Limit.of(21);
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+        calls.put("BookingRepository.findByBookerId",
+                () -> bookingRepository.findByBookerId(user, now, 10, page));
+        calls.put("BookingRepository.findWaitingBookingsByUser",
+                () -> bookingRepository.findWaitingBookingsByUser(user, now, 10, page));
+        calls.put("BookingRepository.findByItemOwnerId",
+                () -> bookingRepository.findByItemOwnerId(user, now, 10, page));
+        calls.put("BookingRepository.findLastBookingsForItems",
+                () -> bookingRepository.findLastBookingsForItems(twoIds, now));
+        calls.put("BookingRepository.existsOverlappingBooking",
+                () -> bookingRepository.existsOverlappingBooking(FIRST_ID, now, now.plusHours(1)));
+        calls.put("CommentRepository.findByItemId",
+                () -> commentRepository.findByItemId(FIRST_ID, now, 10, page));
+        calls.put("CommentRepository.findNewestByItemId",
+                () -> commentRepository.findNewestByItemId(FIRST_ID, Limit.of(10)));
+        calls.put("CommentRepository.countByItemIds",
+                () -> commentRepository.countByItemIds(twoIds));
+        calls.put("ItemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc",
+                () -> itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(user, 0, page));
+        calls.put("ItemRepository.findWithStartedNextBooking",
+                () -> itemRepository.findWithStartedNextBooking(now, Limit.of(500)));
+        calls.put("ItemRepository.findAvailableDtosAfter",
+                () -> itemRepository.findAvailableDtosAfter(FIRST_ID + ITEMS - 10, Limit.of(1000)));
+        calls.put("ItemRepository.findAllByRequestIds",
+                () -> itemRepository.findAllByRequestIds(twoIds));
+        calls.put("ItemRequestRepository.findByRequestorIdOrderByCreatedDesc",
+                () -> requestRepository.findByRequestorIdOrderByCreatedDesc(user));
+        calls.put("ItemRequestRepository.findAllExcludingUser",
+                () -> requestRepository.findAllExcludingUser(user, requestCursor, 10, page));
+        calls.put("UserRepository.existsByNormalizedEmail",
+                () -> userRepository.existsByNormalizedEmail("user7@plan.test"));
+
+        calls.forEach((method, call) -> {
+            CapturedStatements.STATEMENTS.clear();
+            call.run();
+            assertThat(CapturedStatements.STATEMENTS).as(method).isNotEmpty();
+            for (String sql : CapturedStatements.STATEMENTS) {
+                String plan = explain(sql);
+                assertThat(plan).as(method + " plan:%n%s", plan).doesNotContainIgnoringCase("tableScan");
+            }
+        });
+    }
+
+    // An owner's page is read in keyset order from one index, not gathered item by item and sorted.
+    @Test
+    void ownerBookingPagesAreReadFromTheOwnerIndex() {
+        int owner = FIRST_ID + 7;
+        LocalDateTime now = BASE;
+        Limit page = Limit.of(21);
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+        calls.put("BookingRepository.findByItemOwnerId",
+                () -> bookingRepository.findByItemOwnerId(owner, now, 10, page));
+        calls.put("BookingRepository.findFutureBookingsByOwner",
+                () -> bookingRepository.findFutureBookingsByOwner(owner, now, now.plusDays(30), 10, page));
+        calls.put("BookingRepository.findWaitingBookingsByOwner",
+                () -> bookingRepository.findWaitingBookingsByOwner(owner, now, 10, page));
+
+        calls.forEach((method, call) -> {
+            CapturedStatements.STATEMENTS.clear();
+            call.run();
+            assertThat(CapturedStatements.STATEMENTS).as(method).hasSize(1);
+            String plan = explain(CapturedStatements.STATEMENTS.get(0));
+            assertThat(plan).as(method + " plan:%n%s", plan).containsIgnoringCase("BOOKINGS_OWNER_START_IDX");
+        });
+    }
+
+    // Totals of embedded comments are counted from the comments table alone; the hot query list above
+    // checks that the newest comments themselves are read from an index.
+    @Test
+    void commentCountsReadNoUsers() {
+        CapturedStatements.STATEMENTS.clear();
+        commentRepository.countByItemIds(List.of(FIRST_ID, FIRST_ID + 1));
+        assertThat(CapturedStatements.STATEMENTS).hasSize(1);
+        String plan = explain(CapturedStatements.STATEMENTS.get(0));
+        assertThat(plan).as("plan:%n%s", plan).doesNotContainIgnoringCase("USERS");
+    }
+
+    // The plan does not depend on the values here, so every parameter is bound to null.
+    private String explain(String sql) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setObject(i, null);
+            }
+            return statement;
+        }, (ResultSet rs) -> rs.next() ? rs.getString(1) : null);
+    }
+
+    // Records the SQL Hibernate generates, so that the plans checked are those of the real queries.
+    public static class CapturedStatements implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
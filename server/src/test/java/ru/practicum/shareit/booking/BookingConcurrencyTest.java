@@ -0,0 +1,204 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not transactional on purpose: every booking attempt must run in its own transaction.
+@SpringBootTest
+class BookingConcurrencyTest {
+    private static final int BOOKERS = 8;
+    private static final int DECISIONS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void onlyOneOfConcurrentOverlappingBookingsSucceeds() throws Exception {
+        UserDto owner = userService.createUser(new UserDto(null, "Griffith", "falcon@midland.org"));
+        ItemDto hotItem = itemService.addItem(new ItemDto(null, "Crimson Behelit", "Everybody wants it",
+                true, null), owner.getId());
+        List<Integer> bookerIds = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookerIds.add(userService.createUser(new UserDto(null, "Booker " + i, "booker" + i + "@band.org")).getId());
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKERS);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            Integer bookerId = bookerIds.get(i);
+            // Each attempt overlaps every other one by at least an hour.
+            BookingDto booking = new BookingDto(null, start.plusMinutes(i), start.plusHours(2), hotItem.getId(),
+                    null, null, null);
+            attempts.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.createBooking(booking, bookerId);
+                    return true;
+                } catch (ConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        ready.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        int succeeded = 0;
+        for (Future<Boolean> attempt : attempts) {
+            if (attempt.get()) {
+                succeeded++;
+            }
+        }
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(bookingRepository.existsOverlappingBooking(hotItem.getId(), start, start.plusHours(2))).isTrue();
+        assertThat(bookingRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void onlyOneOfConcurrentDecisionsOnABookingWins() throws Exception {
+        UserDto owner = userService.createUser(new UserDto(null, "Serpico", "serpico@farnese.org"));
+        UserDto booker = userService.createUser(new UserDto(null, "Farnese", "farnese@holy-iron.org"));
+        ItemDto item = itemService.addItem(new ItemDto(null, "Sylph Sword", "Light as wind",
+                true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        Integer bookingId = bookingService.createBooking(new BookingDto(null, start, start.plusHours(1), item.getId(),
+                null, null, null), booker.getId()).getId();
+
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(DECISIONS);
+        List<Future<BookingStatus>> attempts = new ArrayList<>();
+        for (int i = 0; i < DECISIONS; i++) {
+            boolean approved = i % 2 == 0;
+            attempts.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    return bookingService.approveBooking(bookingId, owner.getId(), approved).getStatus();
+                } catch (ValidationException e) {
+                    return null;
+                }
+            }));
+        }
+        ready.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        List<BookingStatus> written = new ArrayList<>();
+        for (Future<BookingStatus> attempt : attempts) {
+            if (attempt.get() != null) {
+                written.add(attempt.get());
+            }
+        }
+        assertThat(written).hasSize(1);
+        assertThat(bookingRepository.findById(bookingId).orElseThrow().getStatus()).isEqualTo(written.get(0));
+    }
+
+    @Test
+    void itemEditDuringApprovalKeepsTheBookingSnapshot() throws Exception {
+        UserDto owner = userService.createUser(new UserDto(null, "Rickert", "rickert@hawks.org"));
+        UserDto booker = userService.createUser(new UserDto(null, "Erica", "erica@hawks.org"));
+        ItemDto item = itemService.addItem(new ItemDto(null, "Telescope", "Sees the eclipse coming",
+                true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        Integer bookingId = bookingService.createBooking(new BookingDto(null, start, start.plusHours(1), item.getId(),
+                null, null, null), booker.getId()).getId();
+
+        // The approval records the snapshot and keeps its transaction open while the owner edits the item.
+        CountDownLatch approved = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> approval = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> {
+                    bookingService.approveBooking(bookingId, owner.getId(), true);
+                    approved.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertThat(approved.await(10, TimeUnit.SECONDS)).isTrue();
+        Future<ItemDto> edit = executor.submit(() -> itemService.updateItem(item.getId(),
+                new ItemDto(null, "Old telescope", null, null, null), owner.getId()));
+        // Gives the edit time to read the item before the approval commits.
+        Thread.sleep(200);
+        release.countDown();
+        approval.get(10, TimeUnit.SECONDS);
+        edit.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        Item stored = itemRepository.findById(item.getId()).orElseThrow();
+        assertThat(stored.getName()).isEqualTo("Old telescope");
+        assertThat(stored.getNextBooking()).isNotNull();
+        assertThat(stored.getNextBooking().getBookingId()).isEqualTo(bookingId);
+    }
+
+    @Test
+    void adjacentBookingsDoNotConflict() {
+        UserDto owner = userService.createUser(new UserDto(null, "Guts", "black.swordsman@band.org"));
+        UserDto booker = userService.createUser(new UserDto(null, "Casca", "casca@band.org"));
+        ItemDto item = itemService.addItem(new ItemDto(null, "Dragon Slayer", "Too big to be a sword",
+                true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+
+        bookingService.createBooking(new BookingDto(null, start, start.plusHours(1), item.getId(),
+                null, null, null), booker.getId());
+        bookingService.createBooking(new BookingDto(null, start.plusHours(1), start.plusHours(2), item.getId(),
+                null, null, null), booker.getId());
+
+        assertThat(bookingRepository.count()).isEqualTo(2);
+    }
+}
@@ -8,21 +8,33 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.MethodValidationInterceptor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.GlobalExceptionHandler;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,7 +42,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ExtendWith(MockitoExtension.class)
 public class BookingControllerTest {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @Mock
     private BookingService bookingService;
@@ -96,6 +109,58 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value("APPROVED"));
     }
 
+    @Test
+    void decideBookingsTest() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1, true), new BookingDecisionDto(5, false));
+        when(bookingService.decideBookings(eq(decisions), eq(naruto.getId()))).thenReturn(List.of(
+                new BookingDecisionResultDto(1, BookingStatus.APPROVED, null),
+                new BookingDecisionResultDto(5, null, "Booking with id = 5 not found")));
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", naruto.getId())
+                        .content(objectMapper.writeValueAsString(decisions))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId").value(1))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].status").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value("Booking with id = 5 not found"));
+    }
+
+    @Test
+    void decideBookingsRejectsEmptyBatchTest() throws Exception {
+        validatingMockMvc().perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", naruto.getId())
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void decideBookingsRejectsOversizedBatchTest() throws Exception {
+        List<BookingDecisionDto> decisions = IntStream.rangeClosed(1, BookingController.MAX_BATCH_SIZE + 1)
+                .mapToObj(id -> new BookingDecisionDto(id, true))
+                .toList();
+
+        validatingMockMvc().perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", naruto.getId())
+                        .content(objectMapper.writeValueAsString(decisions))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void decideBookingsRejectsIncompleteDecisionTest() throws Exception {
+        validatingMockMvc().perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", naruto.getId())
+                        .content("[{\"bookingId\": 1}]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingService);
+    }
+
     @Test
     void getBookingByIdTest() throws Exception {
         when(bookingService.getBookingById(anyInt(), anyInt())).thenReturn(shadowCloneJutsu);
@@ -109,20 +174,22 @@ public class BookingControllerTest {
 
     @Test
     void getUserBookingsTest() throws Exception {
-        when(bookingService.getUserBookings(anyInt(), any())).thenReturn(List.of(shadowCloneJutsu));
+        when(bookingService.getUserBookings(anyInt(), any(), any(), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(shadowCloneJutsu), "next"));
 
         mockMvc.perform(get("/bookings")
                         .param("state", "ALL")
                         .header("X-Sharer-User-Id", naruto.getId())
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
                 .andExpect(jsonPath("$[0].id").value(shadowCloneJutsu.getId()));
     }
 
     @Test
     void getOwnerBookingsTest() throws Exception {
-        when(bookingService.getOwnerBookings(anyInt(), any()))
-                .thenReturn(List.of(shadowCloneJutsu));
+        when(bookingService.getOwnerBookings(anyInt(), any(), any(), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(shadowCloneJutsu), null));
 
         mockMvc.perform(get("/bookings/owner")
                         .param("state", "ALL")
@@ -132,6 +199,19 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.name").value("Rasengan"));
     }
 
+    @Test
+    void getOwnerBookingSummaryTest() throws Exception {
+        when(bookingService.getOwnerBookingSummary(naruto.getId()))
+                .thenReturn(new BookingSummaryDto(7L, 1L, 2L, 4L, 3L, 1L));
+
+        mockMvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", naruto.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(7))
+                .andExpect(jsonPath("$.future").value(4))
+                .andExpect(jsonPath("$.waiting").value(3));
+    }
+
     @Test
     void invalidApprovalParamTest() throws Exception {
         mockMvc.perform(patch("/bookings/{bookingId}", 99)
@@ -140,4 +220,33 @@ public class BookingControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void streamOwnerBookingsTest() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BookingDto> action = invocation.getArgument(2);
+            action.accept(shadowCloneJutsu);
+            action.accept(shadowCloneJutsu);
+            return null;
+        }).when(bookingService).streamOwnerBookings(eq(naruto.getId()), eq("ALL"), any());
+
+        String line = objectMapper.writeValueAsString(shadowCloneJutsu) + "\n";
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", naruto.getId())
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + line));
+    }
+
+    // The standalone setup bypasses the AOP proxy that applies @Validated in the application.
+    private MockMvc validatingMockMvc() {
+        ProxyFactory proxyFactory = new ProxyFactory(bookingController);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new MethodValidationInterceptor());
+        return MockMvcBuilders.standaloneSetup(proxyFactory.getProxy())
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
 }
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Listings and summaries must cost the same number of statements whatever the number of rows:
+// user check + one query.
+@SpringBootTest
+@Transactional
+class BookingQueryCountTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserDto owner;
+    private UserDto booker;
+
+    @BeforeEach
+    void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userService.createUser(new UserDto(null, "Light Yagami", "kira@task-force.jp"));
+        booker = userService.createUser(new UserDto(null, "L Lawliet", "l@task-force.jp"));
+        UserDto secondBooker = userService.createUser(new UserDto(null, "Misa Amane", "misa@task-force.jp"));
+
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            items.add(itemService.addItem(new ItemDto(null, "Death Note " + i, "Rules inside", true, null),
+                    owner.getId()));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 6; i++) {
+            ItemDto item = items.get(i % items.size());
+            UserDto bookerOfItem = i % 2 == 0 ? booker : secondBooker;
+            bookingService.createBooking(new BookingDto(null, start.plusDays(i), start.plusDays(i).plusHours(1),
+                    item.getId(), null, null, null), bookerOfItem.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ownerBookingsAreLoadedWithOneQuery() {
+        statistics.clear();
+
+        List<BookingDto> bookings = bookingService.getOwnerBookings(owner.getId(), "ALL", null, 20).getItems();
+
+        assertThat(bookings).hasSize(6);
+        assertThat(bookings).allSatisfy(booking -> {
+            assertThat(booking.getItem().getName()).startsWith("Death Note");
+            assertThat(booking.getBooker().getName()).isNotBlank();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void userBookingsAreLoadedWithOneQuery() {
+        statistics.clear();
+
+        List<BookingDto> bookings = bookingService.getUserBookings(booker.getId(), "FUTURE", null, 20).getItems();
+
+        assertThat(bookings).hasSize(3);
+        assertThat(bookings).allSatisfy(booking ->
+                assertThat(booking.getBooker().getEmail()).isEqualTo("l@task-force.jp"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void ownerSummaryIsCountedWithOneQuery() {
+        statistics.clear();
+
+        BookingSummaryDto summary = bookingService.getOwnerBookingSummary(owner.getId());
+
+        assertThat(summary).isEqualTo(new BookingSummaryDto(6L, 0L, 0L, 6L, 6L, 0L));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void batchDecisionIsCheckedAndWrittenWithOneStatementEach() {
+        List<BookingDecisionDto> decisions = bookingService.getOwnerBookings(owner.getId(), "WAITING", null, 20)
+                .getItems().stream()
+                .map(booking -> new BookingDecisionDto(booking.getId(), false))
+                .toList();
+        entityManager.clear();
+        statistics.clear();
+
+        List<BookingDecisionResultDto> results = bookingService.decideBookings(decisions, owner.getId());
+
+        assertThat(results).hasSize(6);
+        assertThat(results).allSatisfy(result -> assertThat(result.getStatus()).isEqualTo(BookingStatus.REJECTED));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(bookingService.getOwnerBookingSummary(owner.getId()).getRejected()).isEqualTo(6L);
+    }
+
+    @Test
+    void batchDecisionApprovesAndReportsBookingsThatCannotBeDecided() {
+        List<BookingDto> waiting = bookingService.getOwnerBookings(owner.getId(), "WAITING", null, 20).getItems();
+        entityManager.clear();
+
+        List<BookingDecisionResultDto> results = bookingService.decideBookings(List.of(
+                new BookingDecisionDto(waiting.get(0).getId(), true),
+                new BookingDecisionDto(waiting.get(1).getId(), false),
+                new BookingDecisionDto(-1, true)), booker.getId());
+
+        assertThat(results).allSatisfy(result -> assertThat(result.getError()).isNotBlank());
+
+        results = bookingService.decideBookings(List.of(
+                new BookingDecisionDto(waiting.get(0).getId(), true),
+                new BookingDecisionDto(waiting.get(1).getId(), false)), owner.getId());
+
+        assertThat(results).extracting(BookingDecisionResultDto::getStatus)
+                .containsExactly(BookingStatus.APPROVED, BookingStatus.REJECTED);
+        assertThat(bookingService.getBookingById(waiting.get(0).getId(), owner.getId()).getStatus())
+                .isEqualTo(BookingStatus.APPROVED);
+        assertThat(bookingService.getBookingById(waiting.get(1).getId(), owner.getId()).getStatus())
+                .isEqualTo(BookingStatus.REJECTED);
+        assertThat(itemService.getItemById(waiting.get(0).getItem().getId(), owner.getId()).getNextBooking().getId())
+                .isEqualTo(waiting.get(0).getId());
+
+        results = bookingService.decideBookings(List.of(new BookingDecisionDto(waiting.get(1).getId(), true)),
+                owner.getId());
+
+        assertThat(results.get(0).getError()).isEqualTo("Booking already approved or rejected");
+    }
+
+    @Test
+    void userSummaryCountsOnlyOwnBookings() {
+        BookingSummaryDto summary = bookingService.getUserBookingSummary(booker.getId());
+
+        assertThat(summary).isEqualTo(new BookingSummaryDto(3L, 0L, 0L, 3L, 3L, 0L));
+    }
+}
@@ -1,23 +1,37 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemBookingSnapshots;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserExistenceFilter;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -28,6 +42,7 @@ class BookingServiceTest {
     private BookingRepository bookingRepository;
     private ItemRepository itemRepository;
     private UserRepository userRepository;
+    private ItemBookingSnapshots itemBookingSnapshots;
     private BookingServiceImpl bookingService;
 
     private final User naruto = new User(7, "Naruto Uzumaki", "hokage@konoha.jp");
@@ -41,8 +56,11 @@ class BookingServiceTest {
         bookingRepository = mock(BookingRepository.class);
         itemRepository = mock(ItemRepository.class);
         userRepository = mock(UserRepository.class);
+        itemBookingSnapshots = mock(ItemBookingSnapshots.class);
 
-        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository,
+                BookingOverlapCheck.CONSTRAINT, itemBookingSnapshots, mock(ApplicationEventPublisher.class),
+                new UserExistenceFilter(userRepository));
     }
 
     @Test
@@ -59,6 +77,55 @@ class BookingServiceTest {
         verify(bookingRepository).save(any());
     }
 
+    @Test
+    void createOverlappingBookingRejectedByConstraintTest() {
+        BookingDto dto = new BookingDto(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                rasenganScroll.getId(), ItemMapper.toDto(rasenganScroll), null, null);
+        when(userRepository.findById(sasuke.getId())).thenReturn(Optional.of(sasuke));
+        when(itemRepository.findById(rasenganScroll.getId())).thenReturn(Optional.of(rasenganScroll));
+        // PostgreSQL reports exclusion violations with SQLState 23P01 and Hibernate leaves the constraint name empty.
+        SQLException exclusion = new SQLException(
+                "ERROR: conflicting key value violates exclusion constraint \"bookings_no_overlap\"", "23P01");
+        when(bookingRepository.save(any())).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", exclusion, null)));
+
+        assertThatThrownBy(() -> bookingService.createBooking(dto, sasuke.getId()))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void otherIntegrityErrorsOnCreateAreNotReportedAsOverlapsTest() {
+        BookingDto dto = new BookingDto(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                rasenganScroll.getId(), ItemMapper.toDto(rasenganScroll), null, null);
+        when(userRepository.findById(sasuke.getId())).thenReturn(Optional.of(sasuke));
+        when(itemRepository.findById(rasenganScroll.getId())).thenReturn(Optional.of(rasenganScroll));
+        when(bookingRepository.save(any())).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement",
+                        new SQLException("ERROR: insert or update violates foreign key constraint", "23503"),
+                        "fk_booking_booker")));
+
+        assertThatThrownBy(() -> bookingService.createBooking(dto, sasuke.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void createOverlappingBookingRejectedUnderLockTest() {
+        BookingServiceImpl lockingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository,
+                BookingOverlapCheck.LOCK, itemBookingSnapshots, mock(ApplicationEventPublisher.class),
+                new UserExistenceFilter(userRepository));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime end = start.plusDays(1);
+        BookingDto dto = new BookingDto(null, start, end,
+                rasenganScroll.getId(), ItemMapper.toDto(rasenganScroll), null, null);
+        when(userRepository.findById(sasuke.getId())).thenReturn(Optional.of(sasuke));
+        when(itemRepository.findByIdForUpdate(rasenganScroll.getId())).thenReturn(Optional.of(rasenganScroll));
+        when(bookingRepository.existsOverlappingBooking(rasenganScroll.getId(), start, end)).thenReturn(true);
+
+        assertThatThrownBy(() -> lockingService.createBooking(dto, sasuke.getId()))
+                .isInstanceOf(ConflictException.class);
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Sasuke can't book his own Chidori scroll")
     void bookingOwnItemTest() {
@@ -101,6 +168,72 @@ class BookingServiceTest {
 
     }
 
+    @Test
+    void approveBookingUpdatesItemSnapshotsTest() {
+        BookingDto approved = new BookingDto(42, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                rasenganScroll.getId(), ItemMapper.toDto(rasenganScroll), UserMapper.toDto(sasuke),
+                BookingStatus.APPROVED);
+        BookingDto rejected = new BookingDto(43, LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4),
+                rasenganScroll.getId(), ItemMapper.toDto(rasenganScroll), UserMapper.toDto(sasuke),
+                BookingStatus.REJECTED);
+        when(bookingRepository.decideWaitingBooking(42, naruto.getId(), BookingStatus.APPROVED)).thenReturn(1);
+        when(bookingRepository.decideWaitingBooking(43, naruto.getId(), BookingStatus.REJECTED)).thenReturn(1);
+        when(bookingRepository.findDtoById(42)).thenReturn(Optional.of(approved));
+        when(bookingRepository.findDtoById(43)).thenReturn(Optional.of(rejected));
+
+        assertThat(bookingService.approveBooking(42, naruto.getId(), true)).isSameAs(approved);
+        assertThat(bookingService.approveBooking(43, naruto.getId(), false)).isSameAs(rejected);
+
+        verify(itemBookingSnapshots).recordApproval(argThat(booking -> booking.getId() == 42), any());
+        verify(itemBookingSnapshots, never()).recordApproval(argThat(booking -> booking.getId() == 43), any());
+        verify(bookingRepository, never()).findById(any());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void approveSomeoneElsesBookingTest() {
+        Booking booking = new Booking(42, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                rasenganScroll, naruto, BookingStatus.WAITING);
+        when(bookingRepository.findById(42)).thenReturn(Optional.of(booking));
+
+        assertThatThrownBy(() -> bookingService.approveBooking(42, sasuke.getId(), true))
+                .isInstanceOf(ForbiddenException.class);
+        assertThatThrownBy(() -> bookingService.approveBooking(404, naruto.getId(), true))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void decideBookingsReportsEachBookingTest() {
+        Item sharingan = new Item(4, "Sharingan", "Borrowed eye", sasuke.getId(), true, null);
+        Booking approved = new Booking(42, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                rasenganScroll, sasuke, BookingStatus.WAITING);
+        Booking rejected = new Booking(43, LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4),
+                rasenganScroll, sasuke, BookingStatus.WAITING);
+        Booking alreadyApproved = new Booking(44, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6),
+                rasenganScroll, sasuke, BookingStatus.APPROVED);
+        Booking foreign = new Booking(45, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                sharingan, naruto, BookingStatus.WAITING);
+        when(bookingRepository.findAllForDecision(List.of(42, 43, 44, 45, 46)))
+                .thenReturn(List.of(approved, rejected, alreadyApproved, foreign));
+
+        List<BookingDecisionResultDto> results = bookingService.decideBookings(List.of(
+                new BookingDecisionDto(42, true),
+                new BookingDecisionDto(43, false),
+                new BookingDecisionDto(44, false),
+                new BookingDecisionDto(45, true),
+                new BookingDecisionDto(46, true),
+                new BookingDecisionDto(42, false)), naruto.getId());
+
+        assertThat(results).extracting(BookingDecisionResultDto::getBookingId).containsExactly(42, 43, 44, 45, 46, 42);
+        assertThat(results).extracting(BookingDecisionResultDto::getStatus).containsExactly(
+                BookingStatus.APPROVED, BookingStatus.REJECTED, null, null, null, null);
+        assertThat(results.subList(2, 6)).allSatisfy(result -> assertThat(result.getError()).isNotBlank());
+        verify(itemBookingSnapshots).recordApprovals(eq(List.of(approved)), any());
+        verify(bookingRepository).decideWaitingBookings(argThat(ids -> ids.size() == 2
+                && ids.containsAll(List.of(42, 43))), eq(List.of(42)));
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Neji cannot view someone else's destiny booking")
     void shouldThrowOnForbiddenBookingAccess() {
@@ -127,10 +260,10 @@ class BookingServiceTest {
                     tsukuyomiScroll, itachi, BookingStatus.APPROVED);
             when(userRepository.findById(11))
                     .thenReturn(Optional.of(itachi));
-            when(bookingRepository.findByBookerId(eq(11), any()))
-                    .thenReturn(List.of(booking));
+            when(bookingRepository.findByBookerId(eq(11), any(), any(), any()))
+                    .thenReturn(List.of(BookingMapper.toDto(booking)));
 
-            var result = bookingService.getUserBookings(11, "ALL");
+            var result = bookingService.getUserBookings(11, "ALL", null, 10).getItems();
 
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getItem().getName()).isEqualTo("Tsukuyomi");
@@ -146,10 +279,10 @@ class BookingServiceTest {
 
             when(userRepository.findById(12)).thenReturn(Optional.of(new User(12,
                     "Jiraiya", "pervy@toad.jp")));
-            when(bookingRepository.findCurrentBookingsByUser(eq(12), any()))
-                    .thenReturn(List.of(booking));
+            when(bookingRepository.findCurrentBookingsByUser(eq(12), any(), any(), any(), any()))
+                    .thenReturn(List.of(BookingMapper.toDto(booking)));
 
-            var result = bookingService.getUserBookings(12, "CURRENT");
+            var result = bookingService.getUserBookings(12, "CURRENT", null, 10).getItems();
 
             assertThat(result).hasSize(1);
         }
@@ -164,9 +297,9 @@ class BookingServiceTest {
 
             when(userRepository.findById(13)).thenReturn(Optional.of(new User(13,
                     "Kiba", "inu@konoha.jp")));
-            when(bookingRepository.findWaitingBookingsByOwner(13)).thenReturn(List.of(booking));
+            when(bookingRepository.findWaitingBookingsByOwner(eq(13), any(), any(), any())).thenReturn(List.of(BookingMapper.toDto(booking)));
 
-            var result = bookingService.getOwnerBookings(13, "WAITING");
+            var result = bookingService.getOwnerBookings(13, "WAITING", null, 10).getItems();
 
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getStatus()).isEqualTo(BookingStatus.WAITING);
@@ -178,7 +311,7 @@ class BookingServiceTest {
         when(userRepository.findById(19)).thenReturn(Optional.of(new User(19,
                 "Rock Lee", "bushido@leaf.jp")));
 
-        assertThatThrownBy(() -> bookingService.getUserBookings(19, "DRUNKEN"))
+        assertThatThrownBy(() -> bookingService.getUserBookings(19, "DRUNKEN", null, 10).getItems())
                 .isInstanceOf(IllegalArgumentException.class);
     }
 
@@ -191,9 +324,9 @@ class BookingServiceTest {
                 LocalDateTime.now().plusHours(2), sharingan, new User(31, "Obito", "obito@konoha.jp"), BookingStatus.APPROVED);
 
         when(userRepository.findById(kakashi.getId())).thenReturn(Optional.of(kakashi));
-        when(bookingRepository.findCurrentBookingsByOwner(eq(kakashi.getId()), any())).thenReturn(List.of(activeBooking));
+        when(bookingRepository.findCurrentBookingsByOwner(eq(kakashi.getId()), any(), any(), any(), any())).thenReturn(List.of(BookingMapper.toDto(activeBooking)));
 
-        var result = bookingService.getOwnerBookings(kakashi.getId(), "CURRENT");
+        var result = bookingService.getOwnerBookings(kakashi.getId(), "CURRENT", null, 10).getItems();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getItem().getName()).isEqualTo("Sharingan");
@@ -208,9 +341,9 @@ class BookingServiceTest {
                 LocalDateTime.now().minusDays(1), trenchKnives, new User(41, "Shikamaru", "lazy@konoha.jp"), BookingStatus.APPROVED);
 
         when(userRepository.findById(asuma.getId())).thenReturn(Optional.of(asuma));
-        when(bookingRepository.findPastBookingsByOwner(eq(asuma.getId()), any())).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findPastBookingsByOwner(eq(asuma.getId()), any(), any(), any(), any())).thenReturn(List.of(BookingMapper.toDto(pastBooking)));
 
-        var result = bookingService.getOwnerBookings(asuma.getId(), "PAST");
+        var result = bookingService.getOwnerBookings(asuma.getId(), "PAST", null, 10).getItems();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getItem().getName()).isEqualTo("Trench Knives");
@@ -225,9 +358,9 @@ class BookingServiceTest {
                 LocalDateTime.now().plusDays(2), bugSwarm, new User(51, "Kurenai", "illusion@konoha.jp"), BookingStatus.WAITING);
 
         when(userRepository.findById(shino.getId())).thenReturn(Optional.of(shino));
-        when(bookingRepository.findFutureBookingsByOwner(eq(shino.getId()), any())).thenReturn(List.of(futureBooking));
+        when(bookingRepository.findFutureBookingsByOwner(eq(shino.getId()), any(), any(), any(), any())).thenReturn(List.of(BookingMapper.toDto(futureBooking)));
 
-        var result = bookingService.getOwnerBookings(shino.getId(), "FUTURE");
+        var result = bookingService.getOwnerBookings(shino.getId(), "FUTURE", null, 10).getItems();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getItem().getName()).isEqualTo("Bug Swarm");
@@ -243,10 +376,30 @@ class BookingServiceTest {
 
         when(userRepository.findById(21)).thenReturn(Optional.of(new User(21,
                 "Gaara", "sand@sunavillage.org")));
-        when(bookingRepository.findByItemOwnerId(eq(21), any())).thenReturn(List.of(desertPrison, desertPrison));
+        when(bookingRepository.findByItemOwnerId(eq(21), any(), any(), any())).thenReturn(List.of(BookingMapper.toDto(desertPrison), BookingMapper.toDto(desertPrison)));
 
-        var bookings = bookingService.getOwnerBookings(21, "ALL");
+        var bookings = bookingService.getOwnerBookings(21, "ALL", null, 10).getItems();
 
         assertThat(bookings).hasSize(2);
     }
+
+    @Test
+    void streamOwnerBookingsTest() {
+        User hinata = new User(60, "Hinata", "byakugan@konoha.jp");
+        Item gentleFist = new Item(601, "Gentle Fist", "Hyuga clan taijutsu scroll",
+                hinata.getId(), true, null);
+        Booking first = new Booking(801, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3),
+                gentleFist, naruto, BookingStatus.REJECTED);
+        Booking second = new Booking(802, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                gentleFist, sasuke, BookingStatus.REJECTED);
+
+        when(userRepository.findById(hinata.getId())).thenReturn(Optional.of(hinata));
+        when(bookingRepository.streamBookingsByOwnerAndStatus(hinata.getId(), BookingStatus.REJECTED))
+                .thenReturn(Stream.of(first, second).map(BookingMapper::toDto));
+
+        List<BookingDto> streamed = new ArrayList<>();
+        bookingService.streamOwnerBookings(hinata.getId(), "REJECTED", streamed::add);
+
+        assertThat(streamed).extracting(BookingDto::getId).containsExactly(801, 802);
+    }
 }
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.common.KeyValue;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StateTagObservationConventionTest {
+
+    private final StateTagObservationConvention convention = new StateTagObservationConvention();
+
+    @Test
+    void stateTagIsNormalizedAndBounded() {
+        assertThat(stateTag("past")).isEqualTo("PAST");
+        assertThat(stateTag("definitely-not-a-state")).isEqualTo("invalid");
+        assertThat(stateTag(null)).isEqualTo("none");
+    }
+
+    private String stateTag(String state) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/owner");
+        if (state != null) {
+            request.setParameter("state", state);
+        }
+        ServerRequestObservationContext context =
+                new ServerRequestObservationContext(request, new MockHttpServletResponse());
+        return convention.getLowCardinalityKeyValues(context).stream()
+                .filter(keyValue -> keyValue.getKey().equals("state"))
+                .map(KeyValue::getValue)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -7,19 +7,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.MethodValidationInterceptor;
 import ru.practicum.shareit.comments.dto.CommentDto;
+import ru.practicum.shareit.exception.GlobalExceptionHandler;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -49,9 +55,8 @@ class ItemControllerTest {
         user = new User(1, "Saitama", "saitama@hero.com");
         item = new ItemDto(1, "Cape", "A sturdy hero cape", true, null);
         itemWithBooking = new ItemWithBookingsDto(1, "Cape", "A sturdy hero cape", true,
-                null, null, null);
-        comment = new CommentDto(1, "Sensei is amazing", null, null,
-                "Genos", LocalDateTime.now());
+                null, null, List.of(), 0L);
+        comment = new CommentDto(1, "Sensei is amazing", "Genos", LocalDateTime.now());
     }
 
     @Test
@@ -67,6 +72,33 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.available").value(true));
     }
 
+    @Test
+    void addItemsTest() throws Exception {
+        when(itemService.addItems(anyList(), anyInt())).thenReturn(List.of(item));
+
+        mockMvc.perform(post("/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", user.getId())
+                        .content(mapper.writeValueAsString(List.of(item))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Cape"));
+    }
+
+    @Test
+    void addItemsRejectsOversizedBatchTest() throws Exception {
+        List<ItemDto> items = IntStream.rangeClosed(1, ItemController.MAX_BATCH_SIZE + 1)
+                .mapToObj(i -> new ItemDto(null, "Cape " + i, "A sturdy hero cape", true, null))
+                .toList();
+
+        validatingMockMvc().perform(post("/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", user.getId())
+                        .content(mapper.writeValueAsString(items)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(itemService);
+    }
+
     @Test
     void updateItemTest() throws Exception {
         when(itemService.updateItem(anyInt(), any(), anyInt())).thenReturn(item);
@@ -82,7 +114,8 @@ class ItemControllerTest {
 
     @Test
     void getItemsByOwnerTest() throws Exception {
-        when(itemService.getItemsByOwner(user.getId())).thenReturn(List.of(itemWithBooking));
+        when(itemService.getItemsByOwner(user.getId(), null, 20))
+                .thenReturn(new CursorPage<>(List.of(itemWithBooking), null));
 
         mockMvc.perform(get("/items")
                         .header("X-Sharer-User-Id", user.getId()))
@@ -103,7 +136,7 @@ class ItemControllerTest {
 
     @Test
     void searchItemsTest() throws Exception {
-        when(itemService.searchItems("cape", user.getId())).thenReturn(List.of(item));
+        when(itemService.searchItems("cape", user.getId(), 0, 20)).thenReturn(List.of(item));
 
         mockMvc.perform(get("/items/search?text=cape")
                         .header("X-Sharer-User-Id", user.getId()))
@@ -123,4 +156,25 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.text").value("Sensei is amazing"))
                 .andExpect(jsonPath("$.authorName").value("Genos"));
     }
+
+    @Test
+    void getCommentsTest() throws Exception {
+        when(itemService.getComments(1, user.getId(), null, 20))
+                .thenReturn(new CursorPage<>(List.of(comment), "next"));
+
+        mockMvc.perform(get("/items/1/comments")
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$[0].authorName").value("Genos"));
+    }
+
+    private MockMvc validatingMockMvc() {
+        ProxyFactory proxyFactory = new ProxyFactory(controller);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new MethodValidationInterceptor());
+        return MockMvcBuilders.standaloneSetup(proxyFactory.getProxy())
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
 }
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void init() {
+        index = new ItemSearchIndex(mock(ItemRepository.class), ItemSearchMode.INDEX);
+        index.put(new ItemDto(1, "Dragon Slayer", "A sword far too big to be called a sword", true, null));
+        index.put(new ItemDto(2, "Behelit", "Crimson egg", true, null));
+        index.put(new ItemDto(3, "Berserker Armor", "Cursed armor forged by dwarves", true, null));
+    }
+
+    @Test
+    void buildReadsAvailableItemsInKeysetBatches() {
+        ItemRepository repository = mock(ItemRepository.class);
+        when(repository.findAvailableDtosAfter(eq(0), any(Limit.class)))
+                .thenReturn(List.of(new ItemDto(4, "Cannon Arm", "Fires from the left hand", true, null)));
+        ItemSearchIndex built = new ItemSearchIndex(repository, ItemSearchMode.INDEX);
+
+        built.build();
+
+        assertThat(built.search("cannon", 0, 10)).extracting(ItemDto::getId).containsExactly(4);
+        verify(repository).findAvailableDtosAfter(eq(0), any(Limit.class));
+    }
+
+    @Test
+    void searchByPrefix() {
+        assertThat(index.search("drag", 0, 10)).extracting(ItemDto::getId).containsExactly(1);
+    }
+
+    @Test
+    void searchToleratesTypos() {
+        assertThat(index.search("swerd", 0, 10)).extracting(ItemDto::getId).containsExactly(1);
+        assertThat(index.search("berserkr armour", 0, 10)).extracting(ItemDto::getId).containsExactly(3);
+    }
+
+    @Test
+    void searchFindsShorterTermsWithinTwoTypos() {
+        assertThat(index.search("behelitss", 0, 10)).extracting(ItemDto::getId).containsExactly(2);
+        assertThat(index.search("behelitsss", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void searchRanksExactMatchesFirstAndPaginates() {
+        index.put(new ItemDto(4, "Armory key", "Opens the armor room", true, null));
+
+        assertThat(index.search("armor", 0, 10)).extracting(ItemDto::getId).containsExactly(3, 4);
+        assertThat(index.search("armor", 1, 1)).extracting(ItemDto::getId).containsExactly(4);
+    }
+
+    @Test
+    void updatesReplacePreviousTermsAndHonourAvailability() {
+        index.put(new ItemDto(2, "Beherit", "Crimson egg of the king", true, null));
+
+        assertThat(index.search("king", 0, 10)).extracting(ItemDto::getId).containsExactly(2);
+
+        index.put(new ItemDto(2, "Beherit", "Crimson egg of the king", false, null));
+
+        assertThat(index.search("crimson", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void disabledIndexIgnoresUpdates() {
+        ItemSearchIndex disabled = new ItemSearchIndex(mock(ItemRepository.class), ItemSearchMode.LIKE);
+        disabled.put(new ItemDto(1, "Dragon Slayer", "Sword", true, null));
+
+        assertThat(disabled.search("dragon", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void savedItemsAreIndexed() {
+        index.onItemsSaved(new ItemsSavedEvent(List.of(
+                new ItemDto(4, "Griffith's Helmet", "Falcon shaped", true, null),
+                new ItemDto(2, "Behelit", "Crimson egg", false, null))));
+
+        assertThat(index.search("falcon", 0, 10)).extracting(ItemDto::getId).containsExactly(4);
+        assertThat(index.search("behelit", 0, 10)).isEmpty();
+    }
+}
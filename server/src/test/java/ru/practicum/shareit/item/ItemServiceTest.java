@@ -7,16 +7,30 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.comments.dto.CommentDto;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.IntStream;
 
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -32,6 +46,21 @@ public class ItemServiceTest {
     @Autowired
     BookingService bookingService;
 
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRequestService itemRequestService;
+
+    @Autowired
+    ItemBookingSnapshots itemBookingSnapshots;
+
     static UserDto saitama;
     static UserDto genos;
     static ItemDto capeOfSeriousness;
@@ -97,19 +126,93 @@ public class ItemServiceTest {
         itemService.addItem(capeOfSeriousness, hero.getId());
         itemService.addItem(glovesOfConsecutivePunches, hero.getId());
 
-        List<ItemWithBookingsDto> gearSet = itemService.getItemsByOwner(hero.getId());
+        List<ItemWithBookingsDto> gearSet = itemService.getItemsByOwner(hero.getId(), null, 10).getItems();
         Assertions.assertThat(gearSet).hasSizeGreaterThanOrEqualTo(2);
     }
 
+    @Test
+    void getItemsByOwnerPicksOneLastAndNextBookingPerItem() {
+        UserDto hero = userService.createUser(saitama);
+        UserDto disciple = userService.createUser(genos);
+        ItemDto gear = itemService.addItem(capeOfSeriousness, hero.getId());
+        Item cape = itemRepository.findById(gear.getId()).orElseThrow();
+        User genosEntity = userRepository.findById(disciple.getId()).orElseThrow();
+        LocalDateTime pastStart = LocalDateTime.now().minusDays(3).withNano(0);
+        LocalDateTime futureStart = LocalDateTime.now().plusDays(3).withNano(0);
+
+        // Saved directly: two approved bookings sharing a start time used to yield two "last" rows.
+        bookingRepository.save(new Booking(null, pastStart, pastStart.plusDays(1), cape, genosEntity,
+                BookingStatus.APPROVED));
+        Booking lastTied = bookingRepository.save(new Booking(null, pastStart, pastStart.plusDays(1), cape,
+                genosEntity, BookingStatus.APPROVED));
+        Booking nextTied = bookingRepository.save(new Booking(null, futureStart, futureStart.plusDays(1), cape,
+                genosEntity, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, futureStart, futureStart.plusDays(1), cape, genosEntity,
+                BookingStatus.APPROVED));
+        itemBookingSnapshots.refresh(List.of(cape), LocalDateTime.now());
+
+        List<ItemWithBookingsDto> gearSet = itemService.getItemsByOwner(hero.getId(), null, 10).getItems();
+
+        Assertions.assertThat(gearSet).hasSize(1);
+        Assertions.assertThat(gearSet.get(0).getLastBooking().getId()).isEqualTo(lastTied.getId());
+        Assertions.assertThat(gearSet.get(0).getNextBooking().getId()).isEqualTo(nextTied.getId());
+    }
+
     @Test
     void searchItemsTest() {
         UserDto hero = userService.createUser(saitama);
         itemService.addItem(capeOfSeriousness, hero.getId());
 
-        List<ItemDto> searchResults = itemService.searchItems("cape", hero.getId());
+        List<ItemDto> searchResults = itemService.searchItems("cape", hero.getId(), 0, 10);
         Assertions.assertThat(searchResults).isNotEmpty();
     }
 
+    // Same matching as the prefix terms of the full-text mode: the text has to start a word.
+    @Test
+    void searchItemsMatchesWordPrefixesOnly() {
+        UserDto hero = userService.createUser(saitama);
+        ItemDto drill = itemService.addItem(new ItemDto(null, "Drill", "Makes holes in walls", true, null),
+                hero.getId());
+        ItemDto screwdriver = itemService.addItem(new ItemDto(null, "Screwdriver", "Power tool", true, null),
+                hero.getId());
+
+        Assertions.assertThat(itemService.searchItems("dri", hero.getId(), 0, 10))
+                .extracting(ItemDto::getId).containsExactly(drill.getId());
+        Assertions.assertThat(itemService.searchItems("HOL", hero.getId(), 0, 10))
+                .extracting(ItemDto::getId).containsExactly(drill.getId());
+        Assertions.assertThat(itemService.searchItems("power tool", hero.getId(), 0, 10))
+                .extracting(ItemDto::getId).containsExactly(screwdriver.getId());
+        Assertions.assertThat(itemService.searchItems("ill", hero.getId(), 0, 10)).isEmpty();
+        Assertions.assertThat(itemService.searchItems("driver", hero.getId(), 0, 10)).isEmpty();
+    }
+
+    @Test
+    void searchItemsRanksNameMatchesFirstAndPaginates() {
+        UserDto hero = userService.createUser(saitama);
+        ItemDto gloves = itemService.addItem(new ItemDto(null, "Hero gloves",
+                "Worn under a cape", true, null), hero.getId());
+        ItemDto cape = itemService.addItem(capeOfSeriousness, hero.getId());
+
+        List<ItemDto> firstPage = itemService.searchItems("cape", hero.getId(), 0, 1);
+        List<ItemDto> secondPage = itemService.searchItems("cape", hero.getId(), 1, 1);
+
+        Assertions.assertThat(firstPage).extracting(ItemDto::getId).containsExactly(cape.getId());
+        Assertions.assertThat(secondPage).extracting(ItemDto::getId).containsExactly(gloves.getId());
+    }
+
+    @Test
+    void searchItemsStartsAtTheRequestedOffset() {
+        UserDto hero = userService.createUser(saitama);
+        List<Integer> capes = IntStream.range(0, 4)
+                .mapToObj(i -> itemService.addItem(new ItemDto(null, "Cape " + i, "Red", true, null), hero.getId()))
+                .map(ItemDto::getId)
+                .toList();
+
+        List<ItemDto> page = itemService.searchItems("cape", hero.getId(), 1, 2);
+
+        Assertions.assertThat(page).extracting(ItemDto::getId).containsExactly(capes.get(1), capes.get(2));
+    }
+
     @Test
     void addCommentTest() {
         UserDto saitamaDto = userService.createUser(saitama);
@@ -135,6 +238,33 @@ public class ItemServiceTest {
         Assertions.assertThat(reviewedGear.getComments()).hasSize(1);
     }
 
+    @Test
+    void itemEmbedsNewestCommentsAndThreadIsPaged() {
+        UserDto saitamaDto = userService.createUser(saitama);
+        UserDto genosDto = userService.createUser(genos);
+        ItemDto gear = itemService.addItem(capeOfSeriousness, saitamaDto.getId());
+        BookingDto booking = bookingService.createBooking(new BookingDto(null, LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusDays(1), gear.getId(), gear, genosDto, null), genosDto.getId());
+        bookingService.approveBooking(booking.getId(), saitamaDto.getId(), true);
+        List<CommentDto> thread = IntStream.range(0, 12)
+                .mapToObj(i -> itemService.addComment(gear.getId(), genosDto.getId(), "Serious punch #" + i))
+                .toList();
+
+        ItemWithBookingsDto fetched = itemService.getItemById(gear.getId(), genosDto.getId());
+        CursorPage<CommentDto> firstPage = itemService.getComments(gear.getId(), genosDto.getId(), null, 8);
+        CursorPage<CommentDto> secondPage = itemService.getComments(gear.getId(), genosDto.getId(),
+                firstPage.getNextCursor(), 8);
+
+        Assertions.assertThat(fetched.getCommentCount()).isEqualTo(12);
+        Assertions.assertThat(fetched.getComments()).hasSize(10);
+        Assertions.assertThat(fetched.getComments().get(0).getText()).isEqualTo("Serious punch #11");
+        Assertions.assertThat(fetched.getComments().get(0).getAuthorName()).isEqualTo(genos.getName());
+        Assertions.assertThat(firstPage.getItems()).hasSize(8);
+        Assertions.assertThat(secondPage.getItems()).hasSize(4);
+        Assertions.assertThat(secondPage.getNextCursor()).isNull();
+        Assertions.assertThat(secondPage.getItems().get(secondPage.getItems().size() - 1).getId()).isEqualTo(thread.get(0).getId());
+    }
+
     @Test
     void notAddCommentTest() {
         UserDto saitamaDto = userService.createUser(saitama);
@@ -187,5 +317,73 @@ public class ItemServiceTest {
         Assertions.assertThat(fetched.getNextBooking().getId()).isEqualTo(futureBooking.getId());
     }
 
+    @Test
+    void approveBookingStoresLastAndNextBookingOnItem() {
+        UserDto saitamaDto = userService.createUser(saitama);
+        UserDto genosDto = userService.createUser(genos);
+        ItemDto gear = itemService.addItem(capeOfSeriousness, saitamaDto.getId());
+
+        BookingDto past = bookingService.createBooking(new BookingDto(null, LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusDays(1), gear.getId(), gear, genosDto, null), genosDto.getId());
+        BookingDto future = bookingService.createBooking(new BookingDto(null, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), gear.getId(), gear, genosDto, null), genosDto.getId());
+        bookingService.approveBooking(past.getId(), saitamaDto.getId(), true);
+        bookingService.approveBooking(future.getId(), saitamaDto.getId(), true);
+
+        Item cape = itemRepository.findById(gear.getId()).orElseThrow();
+        Assertions.assertThat(cape.getLastBooking().getBookingId()).isEqualTo(past.getId());
+        Assertions.assertThat(cape.getNextBooking().getBookingId()).isEqualTo(future.getId());
+    }
+
+    @Test
+    void rollMovesStartedNextBookingIntoLast() {
+        UserDto hero = userService.createUser(saitama);
+        UserDto disciple = userService.createUser(genos);
+        ItemDto gear = itemService.addItem(capeOfSeriousness, hero.getId());
+        Item cape = itemRepository.findById(gear.getId()).orElseThrow();
+        User genosEntity = userRepository.findById(disciple.getId()).orElseThrow();
+        LocalDateTime start = LocalDateTime.now().minusHours(1).withNano(0);
+        Booking started = bookingRepository.save(new Booking(null, start, start.plusDays(1), cape, genosEntity,
+                BookingStatus.APPROVED));
+        // Stored as the next booking while it had not started yet.
+        cape.setNextBooking(BookingMapper.toSnapshot(started));
+
+        Assertions.assertThat(itemService.getItemById(gear.getId(), hero.getId()).getLastBooking().getId())
+                .isEqualTo(started.getId());
 
-}
\ No newline at end of file
+        itemBookingSnapshots.rollStartedBookings();
+
+        Assertions.assertThat(cape.getLastBooking().getBookingId()).isEqualTo(started.getId());
+        Assertions.assertThat(cape.getNextBooking()).isNull();
+    }
+
+    @Test
+    void addItemsImportsAllItemsAndResolvesRequests() {
+        UserDto hero = userService.createUser(saitama);
+        UserDto disciple = userService.createUser(genos);
+        ItemRequestResponseDto request = itemRequestService.createRequest(disciple.getId(),
+                new ItemRequestDto(null, "Need sparring gear", null));
+
+        List<ItemDto> catalog = IntStream.range(0, 120)
+                .mapToObj(i -> new ItemDto(null, "Training weight " + i, "Heavy", true,
+                        i % 2 == 0 ? request.getId() : null))
+                .toList();
+
+        List<ItemDto> imported = itemService.addItems(catalog, hero.getId());
+
+        Assertions.assertThat(imported).hasSize(120);
+        Assertions.assertThat(imported).extracting(ItemDto::getId).doesNotContainNull().doesNotHaveDuplicates();
+        Assertions.assertThat(itemRepository.findByRequestId(request.getId())).hasSize(60);
+        Assertions.assertThat(itemService.getItemById(imported.get(imported.size() - 1).getId(), hero.getId()).getName())
+                .isEqualTo("Training weight 119");
+    }
+
+    @Test
+    void addItemsWithUnknownRequestFails() {
+        UserDto hero = userService.createUser(saitama);
+        List<ItemDto> catalog = List.of(new ItemDto(null, "Cape", "Red", true, 999_999));
+
+        Assertions.assertThatThrownBy(() -> itemService.addItems(catalog, hero.getId()))
+                .isInstanceOf(NotFoundException.class);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.comments.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.pagination.CursorPage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OwnerItemsCacheTest {
+
+    private OwnerItemsCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void init() {
+        cache = new OwnerItemsCache(100, Duration.ofMinutes(5));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void secondReadIsServedFromCache() {
+        cache.get(1, null, 20, () -> load(null));
+        cache.get(1, null, 20, () -> load(null));
+        cache.get(1, null, 10, () -> load(null));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void readsGetTheirOwnCopyOfThePage() {
+        CursorPage<ItemWithBookingsDto> loaded = cache.get(1, null, 20, () -> load(null));
+        loaded.getItems().get(0).setName("Changed by the first reader");
+
+        CursorPage<ItemWithBookingsDto> first = cache.get(1, null, 20, () -> load(null));
+        first.getItems().get(0).getComments().get(0).setText("Changed by the second reader");
+        CursorPage<ItemWithBookingsDto> second = cache.get(1, null, 20, () -> load(null));
+
+        assertThat(second.getItems().get(0).getName()).isEqualTo("Lantern");
+        assertThat(second.getItems().get(0).getComments().get(0).getText()).isEqualTo("Lights the way");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void changeOfOwnerDropsOnlyTheirPages() {
+        cache.get(1, null, 20, () -> load(null));
+        cache.get(1, "next", 20, () -> load(null));
+        cache.get(2, null, 20, () -> load(null));
+
+        cache.onOwnerItemsChanged(new OwnerItemsChangedEvent(1));
+        cache.get(1, null, 20, () -> load(null));
+        cache.get(1, "next", 20, () -> load(null));
+        cache.get(2, null, 20, () -> load(null));
+
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void pageLoadedDuringChangeIsNotCached() {
+        cache.get(1, null, 20, () -> {
+            cache.onOwnerItemsChanged(new OwnerItemsChangedEvent(1));
+            return load(null);
+        });
+        cache.get(1, null, 20, () -> load(null));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void pageExpiresWhenNextBookingStarts() {
+        cache.get(1, null, 20, () -> load(LocalDateTime.now().minusSeconds(1)));
+        cache.get(1, null, 20, () -> load(null));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void hitsAndMissesAreMeasured() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get(1, null, 20, () -> load(null));
+        cache.get(1, null, 20, () -> load(null));
+
+        assertThat(registry.get("cache.gets").tag("cache", "owner-items").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "owner-items").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    private CursorPage<ItemWithBookingsDto> load(LocalDateTime nextBookingStart) {
+        loads.incrementAndGet();
+        BookingShortDto next = nextBookingStart == null ? null
+                : new BookingShortDto(1, 2, nextBookingStart, nextBookingStart.plusDays(1));
+        CommentDto comment = new CommentDto(1, "Lights the way", "Kaneda", LocalDateTime.now());
+        return new CursorPage<>(List.of(new ItemWithBookingsDto(1, "Lantern", "Bright", true, null, next,
+                List.of(comment), 1L)), null);
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -116,8 +117,8 @@ class ItemRequestControllerTest {
 
     @Test
     void getAllRequestsTest() throws Exception {
-        when(itemRequestService.getAllRequests(anyInt()))
-                .thenReturn(List.of(savedRequest));
+        when(itemRequestService.getAllRequests(anyInt(), any(), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(savedRequest), null));
 
         mockMvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", thorfinn.getId())
@@ -54,7 +54,7 @@ public class ItemRequestServiceTest {
         ItemRequestResponseDto req2 = itemRequestService.createRequest(user.getId(),
                 new ItemRequestDto(null, "Looking for peace treaty scrolls", LocalDateTime.now()));
 
-        List<ItemRequestResponseDto> requests = itemRequestService.getAllRequests(user.getId());
+        List<ItemRequestResponseDto> requests = itemRequestService.getAllRequests(user.getId(), null, 10).getItems();
 
         Assertions.assertThat(requests).hasSize(0);
         Assertions.assertThat(requests.isEmpty()).isTrue();
@@ -70,13 +70,13 @@ public class ItemRequestServiceTest {
                 new ItemRequestDto(null, "Looking for another world", LocalDateTime.now()));
 
 
-        List<ItemRequestResponseDto> requests = itemRequestService.getAllRequests(anotherUser.getId());
+        List<ItemRequestResponseDto> requests = itemRequestService.getAllRequests(anotherUser.getId(), null, 10).getItems();
 
         Assertions.assertThat(requests).hasSize(2);
         Assertions.assertThat(requests.contains(req1)).isTrue();
         Assertions.assertThat(requests.contains(req2)).isTrue();
 
-        requests = itemRequestService.getAllRequests(user.getId());
+        requests = itemRequestService.getAllRequests(user.getId(), null, 10).getItems();
 
         Assertions.assertThat(requests.contains(req3)).isTrue();
     }
@@ -90,7 +90,7 @@ public class ItemRequestServiceTest {
         itemRequestService.createRequest(anotherUser.getId(),
                 new ItemRequestDto(null, "Strategy scrolls", LocalDateTime.now()));
 
-        List<ItemRequestResponseDto> results = itemRequestService.getAllRequests(anotherUser.getId());
+        List<ItemRequestResponseDto> results = itemRequestService.getAllRequests(anotherUser.getId(), null, 10).getItems();
 
         Assertions.assertThat(results).hasSize(2);
         Assertions.assertThat(results).noneMatch(r -> r.getDescription().equals("Strategy scrolls"));
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.user;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.config.HibernateCacheConfig;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Not transactional: entries reach the second-level cache only when a transaction commits.
+@SpringBootTest
+class UserCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserDto levi;
+
+    @BeforeEach
+    void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        levi = userService.createUser(new UserDto(null, "Levi Ackerman", "levi@survey-corps.pa"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromCache() {
+        userService.getUserById(levi.getId());
+        statistics.clear();
+
+        userService.getUserById(levi.getId());
+        userService.getUserById(levi.getId());
+
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(HibernateCacheConfig.USERS_REGION);
+        assertThat(region.getHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void updateAndDeleteAreVisibleThroughCache() {
+        userService.getUserById(levi.getId());
+
+        userService.updateUser(levi.getId(), new UserDto(null, "Captain Levi", null));
+        assertThat(userService.getUserById(levi.getId()).getName()).isEqualTo("Captain Levi");
+
+        userService.deleteUser(levi.getId());
+        assertThatThrownBy(() -> userService.getUserById(levi.getId()))
+                .isInstanceOf(NotFoundException.class);
+    }
+}
@@ -10,6 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -98,11 +99,12 @@ class UserControllerTest {
 
     @Test
     void getAllUsersTest() throws Exception {
-        when(userService.getAllUsers())
-                .thenReturn(List.of(exampleUser));
+        when(userService.getAllUsers(null, 20))
+                .thenReturn(new CursorPage<>(List.of(exampleUser), "next"));
 
         mockMvc.perform(get("/users"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(exampleUser.getId())))
                 .andExpect(jsonPath("$[0].name", is(exampleUser.getName())))
@@ -111,11 +113,12 @@ class UserControllerTest {
 
     @Test
     void getAllUsersNoUserExists() throws Exception {
-        when(userService.getAllUsers())
-                .thenReturn(List.of());
+        when(userService.getAllUsers(null, 20))
+                .thenReturn(new CursorPage<>(List.of(), null));
 
         mockMvc.perform(get("/users"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CursorPage.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$", empty()));
     }
 }
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class UserExistenceFilterTest {
+
+    private UserRepository userRepository;
+    private UserExistenceFilter filter;
+
+    @BeforeEach
+    void init() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findIdsAfter(anyInt(), any(Limit.class))).thenReturn(List.of());
+        when(userRepository.findIdsAfter(0, Limit.of(10_000))).thenReturn(List.of(1, 2, 5));
+        when(userRepository.findById(anyInt())).thenReturn(Optional.empty());
+        filter = new UserExistenceFilter(userRepository);
+        filter.build();
+    }
+
+    @Test
+    void knownUsersAreNotLookedUp() {
+        filter.requireExists(1);
+        filter.requireExists(5);
+
+        verify(userRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    void unknownUsersAreCheckedInDatabase() {
+        assertThatThrownBy(() -> filter.requireExists(3)).isInstanceOf(NotFoundException.class);
+
+        when(userRepository.findById(4)).thenReturn(Optional.of(new User(4, "Mikasa", "mikasa@paradis.pa")));
+        filter.requireExists(4);
+        filter.requireExists(4);
+
+        verify(userRepository, times(1)).findById(4);
+    }
+
+    @Test
+    void deletedUsersAreNoLongerTrusted() {
+        filter.remove(2);
+
+        assertThatThrownBy(() -> filter.requireExists(2)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void createdUsersAreTrusted() {
+        filter.add(9);
+        filter.requireExists(9);
+
+        verify(userRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    void deletedUsersAreClearedOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            filter.remove(2);
+            assertThatCode(() -> filter.requireExists(2)).doesNotThrowAnyException();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThatThrownBy(() -> filter.requireExists(2)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void usersReadBeforeTheirDeletionCommittedAreNotTrusted() {
+        AtomicBoolean deleted = new AtomicBoolean();
+        when(userRepository.findById(4)).thenAnswer(invocation -> {
+            if (deleted.compareAndSet(false, true)) {
+                filter.remove(4);
+                return Optional.of(new User(4, "Mikasa", "mikasa@paradis.pa"));
+            }
+            return Optional.empty();
+        });
+
+        filter.requireExists(4);
+
+        assertThatThrownBy(() -> filter.requireExists(4)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void rebuildForgetsUsersDeletedElsewhere() {
+        when(userRepository.findIdsAfter(0, Limit.of(10_000))).thenReturn(List.of(1, 5));
+        filter.rebuild();
+
+        filter.requireExists(1);
+        assertThatThrownBy(() -> filter.requireExists(2)).isInstanceOf(NotFoundException.class);
+    }
+}
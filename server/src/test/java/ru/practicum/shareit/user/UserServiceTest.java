@@ -6,9 +6,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ConstraintViolations;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
 
@@ -19,6 +24,9 @@ class UserServiceTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserRepository userRepository;
+
     private UserDto eren;
     private UserDto mikasa;
 
@@ -62,11 +70,30 @@ class UserServiceTest {
         userService.createUser(eren);
         userService.createUser(mikasa);
 
-        List<UserDto> all = userService.getAllUsers();
+        List<UserDto> all = userService.getAllUsers(null, 10).getItems();
 
         Assertions.assertThat(all).hasSize(2);
     }
 
+    @Test
+    void getAllUsersByPagesTest() {
+        UserDto first = userService.createUser(eren);
+        UserDto second = userService.createUser(mikasa);
+
+        CursorPage<UserDto> firstPage = userService.getAllUsers(null, 1);
+        CursorPage<UserDto> secondPage = userService.getAllUsers(firstPage.getNextCursor(), 1);
+
+        Assertions.assertThat(firstPage.getItems()).containsExactly(first);
+        Assertions.assertThat(secondPage.getItems()).containsExactly(second);
+        Assertions.assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getAllUsersWithInvalidCursor() {
+        Assertions.assertThatThrownBy(() -> userService.getAllUsers("not a cursor", 10))
+                .isInstanceOf(ValidationException.class);
+    }
+
     @Test
     void deleteUserTest() {
         UserDto saved = userService.createUser(eren);
@@ -84,4 +111,51 @@ class UserServiceTest {
         Assertions.assertThatThrownBy(() -> userService.createUser(duplicate))
                 .isInstanceOf(ConflictException.class);
     }
+
+    @Test
+    void createUserDuplicateEmailIgnoringCase() {
+        userService.createUser(mikasa);
+        UserDto duplicate = new UserDto(null, "Another", "Mikasa@Paradis.com");
+
+        Assertions.assertThatThrownBy(() -> userService.createUser(duplicate))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void createUserStoresEmailTrimmed() {
+        UserDto saved = userService.createUser(new UserDto(null, "Mikasa Ackerman", "  mikasa@paradis.com "));
+        UserDto duplicate = new UserDto(null, "Another", " Mikasa@Paradis.com");
+
+        Assertions.assertThat(saved.getEmail()).isEqualTo("mikasa@paradis.com");
+        Assertions.assertThatThrownBy(() -> userService.createUser(duplicate))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void emailIndexRejectsCaseOnlyDuplicates() {
+        userService.createUser(mikasa);
+
+        Assertions.assertThatThrownBy(() -> userRepository.saveAndFlush(new User(null, "Another",
+                        "MIKASA@paradis.com")))
+                .isInstanceOfSatisfying(DataIntegrityViolationException.class, e -> Assertions.assertThat(
+                        ConstraintViolations.isViolationOf(e, "users_email_lower_uq")).isTrue());
+    }
+
+    @Test
+    void otherIntegrityErrorsAreNotReportedAsEmailConflicts() {
+        UserDto nameless = new UserDto(null, null, "nameless@paradis.com");
+
+        Assertions.assertThatThrownBy(() -> userService.createUser(nameless))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void updateUserEmailCaseOnly() {
+        UserDto created = userService.createUser(mikasa);
+        UserDto patch = new UserDto(null, null, "Mikasa@Paradis.com");
+
+        UserDto updated = userService.updateUser(created.getId(), patch);
+
+        Assertions.assertThat(updated.getEmail()).isEqualTo("Mikasa@Paradis.com");
+    }
 }